@@ -0,0 +1,391 @@
+package com.bw.utils;
+import java.util.Random;
+
+/**
+ * 按权重随机选取下标的别名表(Vose算法)
+ * <p>
+ * 以O(n)时间构建, 之后每次抽样只需一次随机数和一次比较, 与权重个数无关, 适合在大量候选项中
+ * 高频地按权重选取(负载均衡目标、A/B分桶等). 抽样读取的是不可变的快照, 可被多个线程并发执行;
+ * 修改权重只记录在待生效的权重上, 调用{@link #rebuild()}后才对抽样生效, 可由定时任务周期性地重建.
+ *
+ * <pre>
+ * AliasTable table = new AliasTable(new double[] { 5, 3, 2 });
+ * int target = table.sample();
+ * int[] top = table.sample(2);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class AliasTable {
+
+	private final double[] pending;
+	private boolean dirty;
+	private volatile Table table;
+
+	/**
+	 * 以权重创建别名表
+	 *
+	 * @param weights
+	 *            权重, 非负且有限, 至少有一个大于0
+	 */
+	public AliasTable(double[] weights) {
+		if (weights == null || weights.length == 0) {
+			throw new IllegalArgumentException("weights must not be empty");
+		}
+		for (double weight : weights) {
+			checkWeight(weight);
+		}
+		this.pending = weights.clone();
+		this.table = new Table(pending.clone());
+	}
+
+	/**
+	 * 以权重创建别名表
+	 *
+	 * @param weights
+	 *            权重, 非负, 至少有一个大于0
+	 */
+	public AliasTable(long[] weights) {
+		this(toDoubles(weights));
+	}
+
+	/**
+	 * 候选项个数
+	 *
+	 * @return
+	 */
+	public int size() {
+		return pending.length;
+	}
+
+	/**
+	 * 当前生效的权重
+	 *
+	 * @param index
+	 *            下标
+	 * @return
+	 */
+	public double getWeight(int index) {
+		return table.weights[index];
+	}
+
+	/**
+	 * 当前生效的权重下选中某个下标的概率
+	 *
+	 * @param index
+	 *            下标
+	 * @return
+	 */
+	public double getProbability(int index) {
+		Table current = table;
+		return current.weights[index] / current.total;
+	}
+
+	/**
+	 * 修改权重, 调用{@link #rebuild()}后生效
+	 *
+	 * @param index
+	 *            下标
+	 * @param weight
+	 *            权重, 非负且有限
+	 */
+	public synchronized void setWeight(int index, double weight) {
+		checkWeight(weight);
+		pending[index] = weight;
+		dirty = true;
+	}
+
+	/**
+	 * 以修改后的权重重建别名表, 重建期间抽样仍使用旧的快照
+	 *
+	 * @return 若权重未被修改, 则不重建并返回false
+	 */
+	public synchronized boolean rebuild() {
+		if (!dirty) {
+			return false;
+		}
+		table = new Table(pending.clone());
+		dirty = false;
+		return true;
+	}
+
+	/**
+	 * 按权重随机选取一个下标, 使用{@link RandomUtil#getRandom()}
+	 *
+	 * @return
+	 */
+	public int sample() {
+		return sample(RandomUtil.getRandom());
+	}
+
+	/**
+	 * 按权重随机选取一个下标
+	 *
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	public int sample(Random random) {
+		return table.sample(random);
+	}
+
+	/**
+	 * 按权重不放回地选取k个下标, 使用{@link RandomUtil#getRandom()}
+	 *
+	 * @param k
+	 *            个数
+	 * @return
+	 */
+	public int[] sample(int k) {
+		return sample(k, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 按权重不放回地选取k个下标(Efraimidis-Spirakis算法). 每个候选项的键为ln(u) / w,
+	 * 取键最大的k个, 结果与逐个抽取且每次抽取后移除选中项的分布相同, 并按抽取顺序排列.
+	 * 先以快速选择在O(n)时间内找出前k个, 再只对这k个排序, 因此k较大时也无需维护堆
+	 *
+	 * @param k
+	 *            个数, 不超过权重大于0的候选项个数
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	public int[] sample(int k, Random random) {
+		Table current = table;
+		if (k < 0 || k > current.positive) {
+			throw new IllegalArgumentException(
+					"k must be between 0 and the number of positive weights");
+		}
+		double[] weights = current.weights;
+		int n = weights.length;
+		double[] keys = new double[n];
+		int[] indexes = new int[n];
+		for (int i = 0; i < n; i++) {
+			indexes[i] = i;
+			if (weights[i] > 0) {
+				// 1 - u落在(0, 1]区间, 避免ln(0)
+				keys[i] = Math.log(1 - RandomUtil.nextDouble(random))
+						/ weights[i];
+			} else {
+				keys[i] = Double.NEGATIVE_INFINITY;
+			}
+		}
+		if (k < n) {
+			select(keys, indexes, 0, n - 1, k);
+		}
+		sort(keys, indexes, 0, k - 1);
+		int[] result = new int[k];
+		System.arraycopy(indexes, 0, result, 0, k);
+		return result;
+	}
+
+	/**
+	 * 快速选择, 使键最大的k个下标位于indexes的前k个位置
+	 *
+	 * @param keys
+	 *            键
+	 * @param indexes
+	 *            下标
+	 * @param low
+	 *            起始位置, 包含
+	 * @param high
+	 *            结束位置, 包含
+	 * @param k
+	 *            个数
+	 */
+	private static void select(double[] keys, int[] indexes, int low,
+			int high, int k) {
+		while (low < high) {
+			int pivot = partition(keys, indexes, low, high);
+			if (pivot == k || pivot == k - 1) {
+				return;
+			}
+			if (pivot < k) {
+				low = pivot + 1;
+			} else {
+				high = pivot - 1;
+			}
+		}
+	}
+
+	/**
+	 * 按键降序快速排序
+	 *
+	 * @param keys
+	 *            键
+	 * @param indexes
+	 *            下标
+	 * @param low
+	 *            起始位置, 包含
+	 * @param high
+	 *            结束位置, 包含
+	 */
+	private static void sort(double[] keys, int[] indexes, int low, int high) {
+		while (low < high) {
+			int pivot = partition(keys, indexes, low, high);
+			// 先递归较短的一侧, 栈深度不超过log(n)
+			if (pivot - low < high - pivot) {
+				sort(keys, indexes, low, pivot - 1);
+				low = pivot + 1;
+			} else {
+				sort(keys, indexes, pivot + 1, high);
+				high = pivot - 1;
+			}
+		}
+	}
+
+	/**
+	 * 以中间位置为枢轴按键降序划分, 返回枢轴的最终位置
+	 *
+	 * @param keys
+	 *            键
+	 * @param indexes
+	 *            下标
+	 * @param low
+	 *            起始位置, 包含
+	 * @param high
+	 *            结束位置, 包含
+	 * @return
+	 */
+	private static int partition(double[] keys, int[] indexes, int low,
+			int high) {
+		swap(keys, indexes, (low + high) >>> 1, high);
+		double pivot = keys[high];
+		int store = low;
+		for (int i = low; i < high; i++) {
+			if (keys[i] > pivot) {
+				swap(keys, indexes, i, store++);
+			}
+		}
+		swap(keys, indexes, store, high);
+		return store;
+	}
+
+	private static void swap(double[] keys, int[] indexes, int i, int j) {
+		double key = keys[i];
+		keys[i] = keys[j];
+		keys[j] = key;
+		int index = indexes[i];
+		indexes[i] = indexes[j];
+		indexes[j] = index;
+	}
+
+	/**
+	 * 校验权重: 非负且有限
+	 *
+	 * @param weight
+	 *            权重
+	 */
+	private static void checkWeight(double weight) {
+		if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+			throw new IllegalArgumentException(
+					"weight must be a finite number greater than or equal 0");
+		}
+	}
+
+	private static double[] toDoubles(long[] weights) {
+		if (weights == null) {
+			throw new IllegalArgumentException("weights must not be empty");
+		}
+		double[] result = new double[weights.length];
+		for (int i = 0; i < weights.length; i++) {
+			result[i] = weights[i];
+		}
+		return result;
+	}
+
+	/**
+	 * 不可变的别名表快照
+	 */
+	private static final class Table {
+
+		private final double[] weights;
+		private final double total;
+		private final int positive;
+		private final double[] probability;
+		private final int[] alias;
+
+		/**
+		 * Vose算法: 把每个概率乘以n, 小于1的列用大于1的列补满, 补足的部分记为别名
+		 *
+		 * @param weights
+		 *            权重
+		 */
+		private Table(double[] weights) {
+			int n = weights.length;
+			double total = 0;
+			int positive = 0, fallback = 0;
+			for (int i = 0; i < n; i++) {
+				total += weights[i];
+				if (weights[i] > 0) {
+					positive++;
+					fallback = i;
+				}
+			}
+			if (positive == 0) {
+				throw new IllegalArgumentException(
+						"weights must contain at least one positive value");
+			}
+			if (total == Double.POSITIVE_INFINITY) {
+				throw new IllegalArgumentException("sum of weights overflows");
+			}
+			this.weights = weights;
+			this.total = total;
+			this.positive = positive;
+			this.probability = new double[n];
+			this.alias = new int[n];
+			double[] scaled = new double[n];
+			// small从前往后、large从后往前共用一个数组, 两者之和恰为n
+			int[] worklist = new int[n];
+			int small = 0, large = n;
+			for (int i = 0; i < n; i++) {
+				scaled[i] = weights[i] * n / total;
+				if (scaled[i] < 1) {
+					worklist[small++] = i;
+				} else {
+					worklist[--large] = i;
+				}
+			}
+			while (small > 0 && large < n) {
+				int less = worklist[--small];
+				int more = worklist[large++];
+				probability[less] = scaled[less];
+				alias[less] = more;
+				scaled[more] = scaled[more] + scaled[less] - 1;
+				if (scaled[more] < 1) {
+					worklist[small++] = more;
+				} else {
+					worklist[--large] = more;
+				}
+			}
+			// 剩余的列只因舍入误差偏离1
+			while (large < n) {
+				probability[worklist[large++]] = 1;
+			}
+			while (small > 0) {
+				int less = worklist[--small];
+				if (weights[less] > 0) {
+					probability[less] = 1;
+				} else {
+					alias[less] = fallback;
+				}
+			}
+		}
+
+		/**
+		 * 一次随机数同时决定列和列内的位置
+		 *
+		 * @param random
+		 *            随机数生成器
+		 * @return
+		 */
+		private int sample(Random random) {
+			double u = RandomUtil.nextDouble(random) * probability.length;
+			int column = (int) u;
+			return u - column < probability[column] ? column : alias[column];
+		}
+
+	}
+
+}
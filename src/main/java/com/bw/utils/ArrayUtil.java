@@ -3,6 +3,8 @@ import java.util.List;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
 import java.lang.reflect.Array;
 
 /**
@@ -644,6 +646,252 @@ public class ArrayUtil {
 		return new ArrayEnumeration<E>(array);
 	}
 
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(Object[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(Object[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(boolean[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(boolean[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(byte[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(byte[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(char[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(char[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(double[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(double[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(float[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(float[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(int[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(int[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(long[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(long[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 使用{@link RandomUtil#getRandom()}
+	 * 
+	 * @param array
+	 *            数组
+	 */
+	public static void shuffle(short[] array) {
+		shuffle(array, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 随机打乱数组(Fisher-Yates), 传入{@link RandomUtil#newRandom(long)}创建的实例即可复现
+	 * 
+	 * @param array
+	 *            数组
+	 * @param random
+	 *            随机数生成器
+	 */
+	public static void shuffle(short[] array, Random random) {
+		shuffle(array, 0, array.length, random);
+	}
+
+	/**
+	 * 并行随机打乱数组(MergeShuffle), 适合很大的数组. 结果只取决于种子, 与线程数无关
+	 * 
+	 * @param array
+	 *            数组
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelShuffle(int[] array, long seed) {
+		new IntShuffleTask(array, seed, 0, array.length, 0).invoke();
+	}
+
+	/**
+	 * 并行随机打乱数组(MergeShuffle), 适合很大的数组. 结果只取决于种子, 与线程数无关
+	 * 
+	 * @param array
+	 *            数组
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelShuffle(long[] array, long seed) {
+		new LongShuffleTask(array, seed, 0, array.length, 0).invoke();
+	}
+
+	/**
+	 * 并行随机打乱数组(MergeShuffle), 适合很大的数组. 结果只取决于种子, 与线程数无关
+	 * 
+	 * @param array
+	 *            数组
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelShuffle(double[] array, long seed) {
+		new DoubleShuffleTask(array, seed, 0, array.length, 0).invoke();
+	}
+
+	/**
+	 * 并行随机打乱数组(MergeShuffle), 适合很大的数组. 结果只取决于种子, 与线程数无关
+	 * 
+	 * @param array
+	 *            数组
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelShuffle(Object[] array, long seed) {
+		new ObjectShuffleTask(array, seed, 0, array.length, 0).invoke();
+	}
+
 	/**
 	 * 元素所在数组的索引
 	 * 
@@ -685,6 +933,563 @@ public class ArrayUtil {
 		return Arrays.asList(target);
 	}
 	
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(Object[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			Object element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(boolean[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			boolean element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(byte[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			byte element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(char[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			char element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(double[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			double element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(float[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			float element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(int[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			int element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(long[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			long element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * 以Fisher-Yates算法打乱数组的[from, to)区间
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void shuffle(short[] array, int from, int to, Random random) {
+		for (int i = to - from; i > 1; i--) {
+			int j = from + RandomUtil.nextInt(random, i);
+			short element = array[from + i - 1];
+			array[from + i - 1] = array[j];
+			array[j] = element;
+		}
+	}
+
+	/**
+	 * MergeShuffle的合并: 两个已打乱的相邻区间逐位掷硬币决定取自哪一侧, 一侧用尽后,
+	 * 以插入的方式把另一侧剩余的元素随机放入
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            左区间起始下标
+	 * @param middle
+	 *            右区间起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void merge(int[] array, int from, int middle, int to,
+			Random random) {
+		int i = from, j = middle;
+		long coins = 0;
+		int remaining = 0;
+		while (true) {
+			if (remaining == 0) {
+				coins = random.nextLong();
+				remaining = 64;
+			}
+			remaining--;
+			if (coins < 0) {
+				if (j == to) {
+					break;
+				}
+				int element = array[i];
+				array[i] = array[j];
+				array[j++] = element;
+			} else if (i == j) {
+				break;
+			}
+			coins <<= 1;
+			i++;
+		}
+		for (; i < to; i++) {
+			int k = from + RandomUtil.nextInt(random, i - from + 1);
+			int element = array[i];
+			array[i] = array[k];
+			array[k] = element;
+		}
+	}
+
+	/**
+	 * MergeShuffle的合并: 两个已打乱的相邻区间逐位掷硬币决定取自哪一侧, 一侧用尽后,
+	 * 以插入的方式把另一侧剩余的元素随机放入
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            左区间起始下标
+	 * @param middle
+	 *            右区间起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void merge(long[] array, int from, int middle, int to,
+			Random random) {
+		int i = from, j = middle;
+		long coins = 0;
+		int remaining = 0;
+		while (true) {
+			if (remaining == 0) {
+				coins = random.nextLong();
+				remaining = 64;
+			}
+			remaining--;
+			if (coins < 0) {
+				if (j == to) {
+					break;
+				}
+				long element = array[i];
+				array[i] = array[j];
+				array[j++] = element;
+			} else if (i == j) {
+				break;
+			}
+			coins <<= 1;
+			i++;
+		}
+		for (; i < to; i++) {
+			int k = from + RandomUtil.nextInt(random, i - from + 1);
+			long element = array[i];
+			array[i] = array[k];
+			array[k] = element;
+		}
+	}
+
+	/**
+	 * MergeShuffle的合并: 两个已打乱的相邻区间逐位掷硬币决定取自哪一侧, 一侧用尽后,
+	 * 以插入的方式把另一侧剩余的元素随机放入
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            左区间起始下标
+	 * @param middle
+	 *            右区间起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void merge(double[] array, int from, int middle, int to,
+			Random random) {
+		int i = from, j = middle;
+		long coins = 0;
+		int remaining = 0;
+		while (true) {
+			if (remaining == 0) {
+				coins = random.nextLong();
+				remaining = 64;
+			}
+			remaining--;
+			if (coins < 0) {
+				if (j == to) {
+					break;
+				}
+				double element = array[i];
+				array[i] = array[j];
+				array[j++] = element;
+			} else if (i == j) {
+				break;
+			}
+			coins <<= 1;
+			i++;
+		}
+		for (; i < to; i++) {
+			int k = from + RandomUtil.nextInt(random, i - from + 1);
+			double element = array[i];
+			array[i] = array[k];
+			array[k] = element;
+		}
+	}
+
+	/**
+	 * MergeShuffle的合并: 两个已打乱的相邻区间逐位掷硬币决定取自哪一侧, 一侧用尽后,
+	 * 以插入的方式把另一侧剩余的元素随机放入
+	 * 
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            左区间起始下标
+	 * @param middle
+	 *            右区间起始下标
+	 * @param to
+	 *            结束下标
+	 * @param random
+	 *            随机数生成器
+	 */
+	private static void merge(Object[] array, int from, int middle, int to,
+			Random random) {
+		int i = from, j = middle;
+		long coins = 0;
+		int remaining = 0;
+		while (true) {
+			if (remaining == 0) {
+				coins = random.nextLong();
+				remaining = 64;
+			}
+			remaining--;
+			if (coins < 0) {
+				if (j == to) {
+					break;
+				}
+				Object element = array[i];
+				array[i] = array[j];
+				array[j++] = element;
+			} else if (i == j) {
+				break;
+			}
+			coins <<= 1;
+			i++;
+		}
+		for (; i < to; i++) {
+			int k = from + RandomUtil.nextInt(random, i - from + 1);
+			Object element = array[i];
+			array[i] = array[k];
+			array[k] = element;
+		}
+	}
+
+	/**
+	 * 并行打乱任务: 按固定大小的块二分, 叶子任务以Fisher-Yates打乱一块, 之后逐层合并.
+	 * 每个节点的生成器只取决于种子和节点编号, 因此结果与线程数无关
+	 */
+	private abstract static class ShuffleTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private static final int BLOCK_SIZE = 1 << 16;
+
+		protected final long seed;
+		protected final int from;
+		protected final int to;
+		private final long node;
+
+		private ShuffleTask(long seed, int from, int to, long node) {
+			this.seed = seed;
+			this.from = from;
+			this.to = to;
+			this.node = node;
+		}
+
+		@Override
+		protected void compute() {
+			int blocks = (int) ((to - from + (long) BLOCK_SIZE - 1) / BLOCK_SIZE);
+			Random random = RandomUtil.blockRandom(seed, node);
+			if (blocks <= 1) {
+				shuffle(random);
+				return;
+			}
+			int middle = from + (blocks >>> 1) * BLOCK_SIZE;
+			invokeAll(create(from, middle, 2 * node + 1), create(middle, to,
+					2 * node + 2));
+			merge(middle, random);
+		}
+
+		/**
+		 * 创建子任务
+		 * 
+		 * @param from
+		 *            起始下标
+		 * @param to
+		 *            结束下标
+		 * @param node
+		 *            节点编号
+		 * @return
+		 */
+		protected abstract ShuffleTask create(int from, int to, long node);
+
+		/**
+		 * 打乱[from, to)区间
+		 * 
+		 * @param random
+		 *            随机数生成器
+		 */
+		protected abstract void shuffle(Random random);
+
+		/**
+		 * 合并[from, middle)与[middle, to)两个已打乱的区间
+		 * 
+		 * @param middle
+		 *            右区间起始下标
+		 * @param random
+		 *            随机数生成器
+		 */
+		protected abstract void merge(int middle, Random random);
+
+	}
+
+	private static final class IntShuffleTask extends ShuffleTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] array;
+
+		private IntShuffleTask(int[] array, long seed, int from, int to, long node) {
+			super(seed, from, to, node);
+			this.array = array;
+		}
+
+		@Override
+		protected ShuffleTask create(int from, int to, long node) {
+			return new IntShuffleTask(array, seed, from, to, node);
+		}
+
+		@Override
+		protected void shuffle(Random random) {
+			ArrayUtil.shuffle(array, from, to, random);
+		}
+
+		@Override
+		protected void merge(int middle, Random random) {
+			ArrayUtil.merge(array, from, middle, to, random);
+		}
+
+	}
+
+	private static final class LongShuffleTask extends ShuffleTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] array;
+
+		private LongShuffleTask(long[] array, long seed, int from, int to, long node) {
+			super(seed, from, to, node);
+			this.array = array;
+		}
+
+		@Override
+		protected ShuffleTask create(int from, int to, long node) {
+			return new LongShuffleTask(array, seed, from, to, node);
+		}
+
+		@Override
+		protected void shuffle(Random random) {
+			ArrayUtil.shuffle(array, from, to, random);
+		}
+
+		@Override
+		protected void merge(int middle, Random random) {
+			ArrayUtil.merge(array, from, middle, to, random);
+		}
+
+	}
+
+	private static final class DoubleShuffleTask extends ShuffleTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] array;
+
+		private DoubleShuffleTask(double[] array, long seed, int from, int to, long node) {
+			super(seed, from, to, node);
+			this.array = array;
+		}
+
+		@Override
+		protected ShuffleTask create(int from, int to, long node) {
+			return new DoubleShuffleTask(array, seed, from, to, node);
+		}
+
+		@Override
+		protected void shuffle(Random random) {
+			ArrayUtil.shuffle(array, from, to, random);
+		}
+
+		@Override
+		protected void merge(int middle, Random random) {
+			ArrayUtil.merge(array, from, middle, to, random);
+		}
+
+	}
+
+	private static final class ObjectShuffleTask extends ShuffleTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] array;
+
+		private ObjectShuffleTask(Object[] array, long seed, int from, int to, long node) {
+			super(seed, from, to, node);
+			this.array = array;
+		}
+
+		@Override
+		protected ShuffleTask create(int from, int to, long node) {
+			return new ObjectShuffleTask(array, seed, from, to, node);
+		}
+
+		@Override
+		protected void shuffle(Random random) {
+			ArrayUtil.shuffle(array, from, to, random);
+		}
+
+		@Override
+		protected void merge(int middle, Random random) {
+			ArrayUtil.merge(array, from, middle, to, random);
+		}
+
+	}
+
 	/**
 	 * 数组列举
 	 * 
@@ -0,0 +1,200 @@
+package com.bw.utils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 基于编辑距离的BK树, 用于查询字典中与给定字符串距离不超过k的全部条目
+ * <p>
+ * 节点以并行数组存储(首子节点/兄弟节点链表), 百万级条目也不会产生大量小对象.
+ * 构建完成后的查询是只读的, 可被多个线程并发执行; 插入与查询不能并发.
+ *
+ * @author Lychie Fan
+ */
+public class BKTree {
+
+	private static final int NONE = -1;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private String[] words;
+	private int[] firstChild;
+	private int[] nextSibling;
+	private int[] edge;
+	private int size;
+
+	/**
+	 * 创建空的BK树
+	 */
+	public BKTree() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 创建空的BK树
+	 *
+	 * @param capacity
+	 *            初始容量
+	 */
+	public BKTree(int capacity) {
+		capacity = Math.max(capacity, 1);
+		words = new String[capacity];
+		firstChild = new int[capacity];
+		nextSibling = new int[capacity];
+		edge = new int[capacity];
+	}
+
+	/**
+	 * 以字典创建BK树
+	 *
+	 * @param dictionary
+	 *            字典
+	 */
+	public BKTree(Collection<String> dictionary) {
+		this(dictionary.size());
+		for (String word : dictionary) {
+			add(word);
+		}
+	}
+
+	/**
+	 * 添加条目
+	 *
+	 * @param word
+	 *            条目
+	 * @return 若条目已存在, 则返回false
+	 */
+	public boolean add(String word) {
+		if (size == 0) {
+			append(word, 0);
+			return true;
+		}
+		SimilarityUtil.Query query = SimilarityUtil.compile(word);
+		int node = 0;
+		while (true) {
+			int distance = query.distance(words[node]);
+			if (distance == 0) {
+				return false;
+			}
+			int child = firstChild[node];
+			while (child != NONE && edge[child] != distance) {
+				child = nextSibling[child];
+			}
+			if (child == NONE) {
+				int index = append(word, distance);
+				nextSibling[index] = firstChild[node];
+				firstChild[node] = index;
+				return true;
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * 条目个数
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 查询与参数距离不超过k的全部条目
+	 *
+	 * @param word
+	 *            查询串
+	 * @param k
+	 *            最大编辑距离
+	 * @return
+	 */
+	public List<String> search(String word, int k) {
+		List<String> result = new ArrayList<String>();
+		if (size == 0) {
+			return result;
+		}
+		SimilarityUtil.Query query = SimilarityUtil.compile(word);
+		int[] stack = new int[DEFAULT_CAPACITY];
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			int distance = query.distance(words[node]);
+			if (distance <= k) {
+				result.add(words[node]);
+			}
+			// 三角不等式: 只有边距离落在[d - k, d + k]内的子树可能含有结果
+			for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+				if (Math.abs(edge[child] - distance) <= k) {
+					if (top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+					}
+					stack[top++] = child;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 批量查询
+	 *
+	 * @param words
+	 *            查询串列表
+	 * @param k
+	 *            最大编辑距离
+	 * @return 与查询串列表一一对应的结果
+	 */
+	public List<List<String>> searchAll(List<String> words, int k) {
+		return searchAll(words, k, false);
+	}
+
+	/**
+	 * 批量查询
+	 *
+	 * @param words
+	 *            查询串列表
+	 * @param k
+	 *            最大编辑距离
+	 * @param parallel
+	 *            是否并行查询
+	 * @return 与查询串列表一一对应的结果
+	 */
+	public List<List<String>> searchAll(final List<String> words, final int k,
+			boolean parallel) {
+		final String[] queries = words.toArray(new String[words.size()]);
+		IntStream indexes = IntStream.range(0, queries.length);
+		if (parallel) {
+			indexes = indexes.parallel();
+		}
+		return indexes.mapToObj(i -> search(queries[i], k)).collect(
+				Collectors.<List<String>> toList());
+	}
+
+	/**
+	 * 追加节点
+	 *
+	 * @param word
+	 *            条目
+	 * @param distance
+	 *            与父节点的距离
+	 * @return 节点索引
+	 */
+	private int append(String word, int distance) {
+		if (size == words.length) {
+			int capacity = size + (size >> 1) + 1;
+			words = Arrays.copyOf(words, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			nextSibling = Arrays.copyOf(nextSibling, capacity);
+			edge = Arrays.copyOf(edge, capacity);
+		}
+		words[size] = word;
+		firstChild[size] = NONE;
+		nextSibling[size] = NONE;
+		edge[size] = distance;
+		return size++;
+	}
+
+}
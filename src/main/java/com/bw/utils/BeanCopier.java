@@ -0,0 +1,576 @@
+package com.bw.utils;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import com.bw.utils.TypeUtil.TypeInfo;
+
+/**
+ * Bean属性复制器
+ * <p>
+ * 每对(源类型, 目标类型)只分析一次: 按属性名匹配源类型的getter(getXxx, boolean属性也可以是isXxx)
+ * 与目标类型的setter, 把所有属性的复制组合为一个{@link MethodHandle}, 之后的复制只调用这一个方法句柄,
+ * 不再反射. 方法句柄被频繁调用后, JIT会把整个组合连同各个getter、setter内联编译, 效果接近手写的逐个赋值.
+ * 类型相同、可直接赋值或为基本数据类型之间的拓宽转换(如int到long)时直接赋值, 不装箱;
+ * 否则经{@link TypeConverter}预先解析的转换函数转换, 无法转换的属性被忽略. 复制器是不可变的,
+ * 可被多个线程共享.
+ * <p>
+ * 复制器在第一次{@link #create(Class, Class)}时生成并永久缓存, 转换函数取自当时
+ * {@link TypeConverter#getInstance()}上已注册的转换器; 之后注册的转换器对已生成的复制器不生效,
+ * 自定义的转换器应在创建复制器之前注册.
+ *
+ * <pre>
+ * BeanCopier&lt;UserDTO, User&gt; copier = BeanCopier.create(UserDTO.class, User.class);
+ * User user = copier.copy(dto);
+ * List&lt;User&gt; users = copier.parallelCopyList(dtos);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class BeanCopier<S, T> {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType PLAN = MethodType.methodType(void.class,
+			Object.class, Object.class);
+	private static final MethodHandle SKIP;
+	private static final MethodHandle APPLY;
+	private static final ClassValue<ClassValue<BeanCopier<?, ?>>> copiers = new ClassValue<ClassValue<BeanCopier<?, ?>>>() {
+		@Override
+		protected ClassValue<BeanCopier<?, ?>> computeValue(Class<?> source) {
+			return new ClassValue<BeanCopier<?, ?>>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				protected BeanCopier<?, ?> computeValue(Class<?> target) {
+					return new BeanCopier<Object, Object>(
+							(Class<Object>) source, (Class<Object>) target);
+				}
+			};
+		}
+	};
+
+	private final Class<S> sourceType;
+	private final Class<T> targetType;
+	private final MethodHandle plan;
+	private final MethodHandle constructor;
+	private final List<String> properties;
+
+	static {
+		try {
+			SKIP = LOOKUP.findStatic(BeanCopier.class, "skip", PLAN);
+			APPLY = LOOKUP.findVirtual(Function.class, "apply",
+					MethodType.methodType(Object.class, Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * 分析源类型与目标类型, 生成复制步骤
+	 *
+	 * @param sourceType
+	 *            源类型
+	 * @param targetType
+	 *            目标类型
+	 */
+	private BeanCopier(Class<S> sourceType, Class<T> targetType) {
+		this.sourceType = sourceType;
+		this.targetType = targetType;
+		Map<String, Method> getters = getters(sourceType);
+		// 按属性名排序, 复制顺序与方法的声明顺序无关
+		Map<String, List<Method>> setters = new TreeMap<String, List<Method>>();
+		for (Method method : targetType.getMethods()) {
+			if (isSetter(method)) {
+				String name = propertyName(method.getName(), 3);
+				if (getters.containsKey(name)) {
+					setters.computeIfAbsent(name, key -> new ArrayList<Method>())
+							.add(method);
+				}
+			}
+		}
+		List<MethodHandle> steps = new ArrayList<MethodHandle>();
+		List<String> properties = new ArrayList<String>();
+		for (Map.Entry<String, List<Method>> entry : setters.entrySet()) {
+			Method getter = getters.get(entry.getKey());
+			Method setter = null;
+			int best = Integer.MAX_VALUE;
+			for (Method candidate : entry.getValue()) {
+				int rank = rank(getter.getReturnType(),
+						candidate.getParameterTypes()[0]);
+				if (rank < best) {
+					best = rank;
+					setter = candidate;
+				}
+			}
+			if (setter != null) {
+				steps.add(step(getter, setter));
+				properties.add(entry.getKey());
+			}
+		}
+		this.plan = steps.isEmpty() ? SKIP : combine(steps, 0, steps.size());
+		this.constructor = constructor(targetType);
+		this.properties = Collections.unmodifiableList(properties);
+	}
+
+	/**
+	 * 获取复制器, 每对类型只分析一次. 之后在{@link TypeConverter}上注册的转换器对返回的复制器不生效
+	 *
+	 * @param sourceType
+	 *            源类型
+	 * @param targetType
+	 *            目标类型
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S, T> BeanCopier<S, T> create(Class<S> sourceType,
+			Class<T> targetType) {
+		if (sourceType == null || targetType == null) {
+			throw new IllegalArgumentException(
+					"sourceType and targetType must not be null");
+		}
+		return (BeanCopier<S, T>) copiers.get(sourceType).get(targetType);
+	}
+
+	/**
+	 * 源类型
+	 *
+	 * @return
+	 */
+	public Class<S> getSourceType() {
+		return sourceType;
+	}
+
+	/**
+	 * 目标类型
+	 *
+	 * @return
+	 */
+	public Class<T> getTargetType() {
+		return targetType;
+	}
+
+	/**
+	 * 被复制的属性名, 按字母顺序排列
+	 *
+	 * @return
+	 */
+	public List<String> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * 把源对象的属性复制到目标对象
+	 *
+	 * @param source
+	 *            源对象
+	 * @param target
+	 *            目标对象
+	 */
+	public void copy(S source, T target) {
+		if (source == null || target == null) {
+			throw new IllegalArgumentException(
+					"source and target must not be null");
+		}
+		run(source, target);
+	}
+
+	/**
+	 * 以目标类型的无参构造方法创建对象, 并复制源对象的属性
+	 *
+	 * @param source
+	 *            源对象, 为null时返回null
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public T copy(S source) {
+		if (source == null) {
+			return null;
+		}
+		if (constructor == null) {
+			throw new IllegalArgumentException(targetType.getName()
+					+ " has no no-arg constructor");
+		}
+		Object target;
+		try {
+			target = (Object) constructor.invokeExact();
+		} catch (Throwable e) {
+			throw propagate(e);
+		}
+		run(source, target);
+		return (T) target;
+	}
+
+	/**
+	 * 批量复制, 结果与参数一一对应, null元素复制为null
+	 *
+	 * @param sources
+	 *            源对象列表
+	 * @return
+	 */
+	public List<T> copyList(List<? extends S> sources) {
+		if (sources == null) {
+			throw new IllegalArgumentException("sources must not be null");
+		}
+		List<T> result = new ArrayList<T>(sources.size());
+		for (S source : sources) {
+			result.add(copy(source));
+		}
+		return result;
+	}
+
+	/**
+	 * 批量复制, 数据量较大时在ForkJoinPool中并行复制. 结果与参数一一对应, null元素复制为null
+	 *
+	 * @param sources
+	 *            源对象列表
+	 * @return
+	 */
+	public List<T> parallelCopyList(List<? extends S> sources) {
+		if (sources == null) {
+			throw new IllegalArgumentException("sources must not be null");
+		}
+		Object[] array = sources.toArray();
+		Object[] result = new Object[array.length];
+		ForkJoinPool.commonPool().invoke(
+				new CopyTask(this, array, result, 0, array.length));
+		@SuppressWarnings("unchecked")
+		List<T> list = (List<T>) Arrays.asList(result);
+		return new ArrayList<T>(list);
+	}
+
+	/**
+	 * 源类型的getter, 按属性名索引
+	 *
+	 * @param type
+	 *            源类型
+	 * @return
+	 */
+	private static Map<String, Method> getters(Class<?> type) {
+		Map<String, Method> getters = new HashMap<String, Method>();
+		for (Method method : type.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || method.isBridge()
+					|| method.getParameterCount() != 0
+					|| method.getDeclaringClass() == Object.class) {
+				continue;
+			}
+			String name = method.getName();
+			Class<?> returnType = method.getReturnType();
+			if (name.length() > 3 && name.startsWith("get")
+					&& returnType != void.class) {
+				getters.putIfAbsent(propertyName(name, 3), method);
+			} else if (name.length() > 2 && name.startsWith("is")
+					&& returnType == boolean.class) {
+				// 与JavaBeans一致, boolean属性优先使用isXxx
+				getters.put(propertyName(name, 2), method);
+			}
+		}
+		return getters;
+	}
+
+	/**
+	 * 是否是setter: 非静态、名为setXxx、只有一个参数
+	 *
+	 * @param method
+	 *            方法
+	 * @return
+	 */
+	private static boolean isSetter(Method method) {
+		String name = method.getName();
+		return !Modifier.isStatic(method.getModifiers()) && !method.isBridge()
+				&& name.length() > 3 && name.startsWith("set")
+				&& method.getParameterCount() == 1;
+	}
+
+	/**
+	 * 由方法名得到属性名, 规则同{@link java.beans.Introspector#decapitalize(String)}
+	 *
+	 * @param name
+	 *            方法名
+	 * @param prefix
+	 *            前缀长度
+	 * @return
+	 */
+	private static String propertyName(String name, int prefix) {
+		if (name.length() > prefix + 1
+				&& Character.isUpperCase(name.charAt(prefix))
+				&& Character.isUpperCase(name.charAt(prefix + 1))) {
+			return name.substring(prefix);
+		}
+		char[] chars = name.substring(prefix).toCharArray();
+		chars[0] = Character.toLowerCase(chars[0]);
+		return new String(chars);
+	}
+
+	/**
+	 * 属性类型的匹配程度, 用于在重载的setter中选择
+	 *
+	 * @param from
+	 *            getter的返回类型
+	 * @param to
+	 *            setter的参数类型
+	 * @return 0为类型相同, 1为可直接赋值, 2为需要转换, 无法转换时为Integer.MAX_VALUE
+	 */
+	private static int rank(Class<?> from, Class<?> to) {
+		if (from == to) {
+			return 0;
+		}
+		if (isWidening(from, to) || isAssignable(from, to)) {
+			return 1;
+		}
+		return TypeConverter.getInstance().canConvert(from, to) ? 2
+				: Integer.MAX_VALUE;
+	}
+
+	/**
+	 * 是否是基本数据类型之间的拓宽转换, 如int到long、long到double、char到int
+	 *
+	 * @param from
+	 *            源类型
+	 * @param to
+	 *            目标类型
+	 * @return
+	 */
+	private static boolean isWidening(Class<?> from, Class<?> to) {
+		if (!from.isPrimitive() || !to.isPrimitive()) {
+			return false;
+		}
+		if (from == to) {
+			return true;
+		}
+		TypeInfo source = TypeUtil.getTypeInfo(from);
+		TypeInfo target = TypeUtil.getTypeInfo(to);
+		if (!target.isNumber()) {
+			return false;
+		}
+		if (from == char.class) {
+			return target.getWidth() > Character.SIZE;
+		}
+		if (target.isDecimal()) {
+			return source.isInteger() || source.isDecimal()
+					&& source.getWidth() <= target.getWidth();
+		}
+		return source.isInteger() && source.getWidth() < target.getWidth();
+	}
+
+	/**
+	 * 引用类型的目标是否可以直接接收源类型的值, 基本数据类型按其装箱类型判断
+	 *
+	 * @param from
+	 *            源类型
+	 * @param to
+	 *            目标类型
+	 * @return
+	 */
+	private static boolean isAssignable(Class<?> from, Class<?> to) {
+		if (to.isPrimitive()) {
+			return false;
+		}
+		Class<?> wrapper = TypeUtil.getTypeInfo(from).getWrapperType();
+		return to.isAssignableFrom(wrapper != null ? wrapper : from);
+	}
+
+	/**
+	 * 执行复制计划
+	 *
+	 * @param source
+	 *            源对象
+	 * @param target
+	 *            目标对象
+	 */
+	private void run(Object source, Object target) {
+		try {
+			plan.invokeExact(source, target);
+		} catch (Throwable e) {
+			throw propagate(e);
+		}
+	}
+
+	/**
+	 * 生成一个属性的复制步骤, 类型为(Object source, Object target)void
+	 *
+	 * @param getter
+	 *            源类型的getter
+	 * @param setter
+	 *            目标类型的setter
+	 * @return
+	 */
+	private static MethodHandle step(Method getter, Method setter) {
+		Class<?> from = getter.getReturnType();
+		Class<?> to = setter.getParameterTypes()[0];
+		MethodHandle get = unreflect(getter);
+		MethodHandle set = unreflect(setter).asType(
+				MethodType.methodType(void.class, Object.class, to));
+		if (isWidening(from, to) || isAssignable(from, to)) {
+			// asType完成拓宽、装箱或引用类型的转换
+			get = get.asType(MethodType.methodType(to, Object.class));
+		} else {
+			// 基本数据类型之间的缩窄(如long到int)与其它类型一样经TypeConverter转换
+			Function<Object, ?> converter = TypeConverter.getInstance()
+					.getConverter(from, to);
+			get = MethodHandles.filterReturnValue(
+					get.asType(MethodType.methodType(Object.class, Object.class)),
+					APPLY.bindTo(converter).asType(
+							MethodType.methodType(to, Object.class)));
+		}
+		// set(target, get(source)), 再把参数顺序调整为(source, target)
+		return MethodHandles.permuteArguments(
+				MethodHandles.filterArguments(set, 1, get), PLAN, 1, 0);
+	}
+
+	/**
+	 * 把区间内的步骤二分折叠为依次执行的一个方法句柄, 嵌套深度为log(n), 便于JIT内联
+	 *
+	 * @param steps
+	 *            复制步骤
+	 * @param from
+	 *            开始位置, 包含
+	 * @param to
+	 *            结束位置, 不包含
+	 * @return
+	 */
+	private static MethodHandle combine(List<MethodHandle> steps, int from,
+			int to) {
+		if (to - from == 1) {
+			return steps.get(from);
+		}
+		int middle = (from + to) >>> 1;
+		// 返回void的combiner先执行, 不向target插入参数
+		return MethodHandles.foldArguments(combine(steps, middle, to),
+				combine(steps, from, middle));
+	}
+
+	/**
+	 * 方法的MethodHandle, 非公有的类型或方法先取消访问检查
+	 *
+	 * @param method
+	 *            方法
+	 * @return
+	 */
+	private static MethodHandle unreflect(Method method) {
+		try {
+			try {
+				return LOOKUP.unreflect(method);
+			} catch (IllegalAccessException e) {
+				method.setAccessible(true);
+				return LOOKUP.unreflect(method);
+			}
+		} catch (RuntimeException | IllegalAccessException e) {
+			throw new IllegalArgumentException("Cannot access "
+					+ method.getDeclaringClass().getName() + "."
+					+ method.getName(), e);
+		}
+	}
+
+	/**
+	 * 目标类型的无参构造方法, 类型为()Object
+	 *
+	 * @param type
+	 *            目标类型
+	 * @return 没有无参构造方法或无法实例化时返回null
+	 */
+	private static MethodHandle constructor(Class<?> type) {
+		if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+			return null;
+		}
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+		try {
+			MethodHandle handle;
+			try {
+				handle = LOOKUP.unreflectConstructor(constructor);
+			} catch (IllegalAccessException e) {
+				constructor.setAccessible(true);
+				handle = LOOKUP.unreflectConstructor(constructor);
+			}
+			return handle.asType(MethodType.methodType(Object.class));
+		} catch (RuntimeException | IllegalAccessException e) {
+			throw new IllegalArgumentException("Cannot access constructor of "
+					+ type.getName(), e);
+		}
+	}
+
+	/**
+	 * 原样抛出运行时异常与错误, 受检异常包装为IllegalStateException
+	 *
+	 * @param e
+	 *            异常
+	 * @return
+	 */
+	private static RuntimeException propagate(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new IllegalStateException(e);
+	}
+
+	/**
+	 * 空的复制计划, 用于没有可复制属性的情况
+	 *
+	 * @param source
+	 *            源对象
+	 * @param target
+	 *            目标对象
+	 */
+	private static void skip(Object source, Object target) {
+	}
+
+	/**
+	 * 批量复制任务, 按区间二分后并行执行, 各任务只写入结果数组中互不重叠的区间
+	 */
+	private static final class CopyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private static final int THRESHOLD = 4096;
+
+		private final BeanCopier<?, ?> copier;
+		private final Object[] sources;
+		private final Object[] result;
+		private final int from;
+		private final int to;
+
+		private CopyTask(BeanCopier<?, ?> copier, Object[] sources,
+				Object[] result, int from, int to) {
+			this.copier = copier;
+			this.sources = sources;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new CopyTask(copier, sources, result, from, middle),
+						new CopyTask(copier, sources, result, middle, to));
+				return;
+			}
+			BeanCopier<Object, ?> typed = (BeanCopier<Object, ?>) copier;
+			for (int i = from; i < to; i++) {
+				result[i] = typed.copy(sources[i]);
+			}
+		}
+
+	}
+
+}
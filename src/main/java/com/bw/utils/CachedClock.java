@@ -0,0 +1,208 @@
+package com.bw.utils;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 粗粒度的缓存时钟
+ * <p>
+ * 后台守护线程按固定精度刷新当前时间, 并为已注册的模式串预先生成格式化字符串.
+ * 读取当前时间或格式化后的当前时间只是一次volatile读, 适合每个请求多次获取时间的场景;
+ * 代价是读到的时间最多落后一个精度周期.
+ *
+ * <pre>
+ * CachedClock clock = CachedClock.getInstance();
+ * CachedClock.Slot slot = clock.register("yyyy-MM-dd HH:mm:ss");
+ * String now = slot.get();
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public final class CachedClock {
+
+	/**
+	 * 默认精度, 毫秒
+	 */
+	public static final long DEFAULT_RESOLUTION = 10;
+	private static final long MILLIS_PER_SECOND = 1000;
+
+	private final long resolution;
+	private final ScheduledExecutorService ticker;
+	private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<String, Slot>();
+	private volatile Slot[] snapshot = new Slot[0];
+	private volatile long millis = System.currentTimeMillis();
+
+	/**
+	 * 以默认精度创建时钟
+	 */
+	public CachedClock() {
+		this(DEFAULT_RESOLUTION, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 创建时钟并立即开始计时
+	 *
+	 * @param resolution
+	 *            刷新间隔, 如1毫秒、10毫秒、1秒
+	 * @param unit
+	 *            时间单位
+	 */
+	public CachedClock(long resolution, TimeUnit unit) {
+		if (resolution <= 0) {
+			throw new IllegalArgumentException("resolution must be greater than 0");
+		}
+		this.resolution = Math.max(unit.toMillis(resolution), 1);
+		this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "CachedClock");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ticker.scheduleAtFixedRate(this::tick, this.resolution,
+				this.resolution, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 获取全局共享的默认精度时钟, 首次调用时创建
+	 *
+	 * @return
+	 */
+	public static CachedClock getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * 当前时间的毫秒数
+	 *
+	 * @return
+	 */
+	public long currentTimeMillis() {
+		return millis;
+	}
+
+	/**
+	 * 刷新间隔, 毫秒
+	 *
+	 * @return
+	 */
+	public long getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * 注册模式串, 之后每次计时都会重新生成该模式串的当前时间字符串
+	 *
+	 * @param pattern
+	 *            模式串, 语法与SimpleDateFormat相同
+	 * @return 持有当前时间字符串的槽位, 重复注册返回同一个槽位
+	 */
+	public Slot register(String pattern) {
+		Slot slot = slots.get(pattern);
+		if (slot != null) {
+			return slot;
+		}
+		synchronized (slots) {
+			slot = slots.get(pattern);
+			if (slot == null) {
+				slot = new Slot(pattern);
+				slot.render(millis);
+				slots.put(pattern, slot);
+				snapshot = slots.values().toArray(new Slot[slots.size()]);
+			}
+		}
+		return slot;
+	}
+
+	/**
+	 * 获取表示当前时间的字符串, 首次使用某个模式串时自动注册
+	 *
+	 * @param pattern
+	 *            模式串
+	 * @return
+	 */
+	public String getCurrentDate(String pattern) {
+		return register(pattern).get();
+	}
+
+	/**
+	 * 停止计时. 停止后读到的是最后一次刷新的时间
+	 */
+	public void stop() {
+		ticker.shutdownNow();
+	}
+
+	/**
+	 * 计时: 先刷新各模式串的字符串, 再发布当前时间
+	 */
+	private void tick() {
+		long now = System.currentTimeMillis();
+		for (Slot slot : snapshot) {
+			slot.render(now);
+		}
+		millis = now;
+	}
+
+	/**
+	 * 模式串的当前时间字符串, 由计时线程写入, 任意线程读取
+	 */
+	public static final class Slot {
+
+		private final String pattern;
+		private final DateTimeFormatter formatter;
+		private final long precision;
+		private long renderedUnit = Long.MIN_VALUE;
+		private volatile String text;
+
+		private Slot(String pattern) {
+			this.pattern = pattern;
+			this.formatter = DateCaseUtil.getDateTimeFormatter(pattern);
+			this.precision = pattern.indexOf('S') < 0 ? MILLIS_PER_SECOND : 1;
+		}
+
+		/**
+		 * 模式串
+		 *
+		 * @return
+		 */
+		public String getPattern() {
+			return pattern;
+		}
+
+		/**
+		 * 当前时间字符串
+		 *
+		 * @return
+		 */
+		public String get() {
+			return text;
+		}
+
+		/**
+		 * 生成字符串. 模式串不含毫秒时, 同一秒内只生成一次
+		 *
+		 * @param now
+		 *            当前时间的毫秒数
+		 */
+		private synchronized void render(long now) {
+			long unit = Math.floorDiv(now, precision);
+			if (unit != renderedUnit) {
+				text = formatter.format(Instant.ofEpochMilli(now));
+				renderedUnit = unit;
+			}
+		}
+
+	}
+
+	/**
+	 * 延迟创建全局时钟
+	 */
+	private static final class Holder {
+
+		private static final CachedClock INSTANCE = new CachedClock();
+
+	}
+
+}
@@ -0,0 +1,650 @@
+package com.bw.utils;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.TimeZone;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 基于毫秒时间戳的日历运算工具类
+ * <p>
+ * 加减天、月、年时保持当地时间不变(月末按目标月份的天数截取), 落在夏令时跳过或重复的当地时间时,
+ * 与{@link DateCaseUtil#parse(String)}一样按标准时间换算;
+ * 工作日运算以周六、周日及节假日为休息日. 日期区间可直接生成long[]或惰性的LongStream,
+ * 整个过程不为每个元素创建对象.
+ *
+ * <pre>
+ * long[] days = CalendarUtil.range(from, to, 1, ChronoUnit.DAYS);
+ * CalendarUtil.Holidays holidays = CalendarUtil.holidays("2020/01/01", "2020/05/01");
+ * long due = CalendarUtil.addBusinessDays(now, 10, holidays);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class CalendarUtil {
+
+	private static final long MILLIS_PER_DAY = DateCaseUtil.MILLIS_PER_DAY;
+	private static final long DAYS_PER_WEEK = 7L;
+	private static final int WEEKDAYS = 5;
+	private static final int MONDAY_OFFSET = 3;
+	private static final double DAYS_PER_MONTH = 365.2425 / 12;
+
+	/**
+	 * 在默认时区中加减天数, 保持当地时间不变
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param days
+	 *            天数, 可以为负
+	 * @return
+	 */
+	public static long addDays(long millis, long days) {
+		return addDays(millis, days, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中加减天数, 保持当地时间不变
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param days
+	 *            天数, 可以为负
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long addDays(long millis, long days, TimeZone zone) {
+		long local = millis + zone.getOffset(millis);
+		return DateCaseUtil.localToUtc(zone, local + days * MILLIS_PER_DAY);
+	}
+
+	/**
+	 * 在默认时区中加减月数, 保持当地时间不变, 日超出目标月份的天数时取月末
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param months
+	 *            月数, 可以为负
+	 * @return
+	 */
+	public static long addMonths(long millis, long months) {
+		return addMonths(millis, months, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中加减月数, 保持当地时间不变, 日超出目标月份的天数时取月末
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param months
+	 *            月数, 可以为负
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long addMonths(long millis, long months, TimeZone zone) {
+		long local = millis + zone.getOffset(millis);
+		long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+		long timeOfDay = Math.floorMod(local, MILLIS_PER_DAY);
+		long epochMonth = DateCaseUtil.toEpochMonth(epochDay);
+		long dayOfMonth = epochDay - DateCaseUtil.epochMonthToEpochDay(epochMonth);
+		long target = epochMonth + months;
+		long first = DateCaseUtil.epochMonthToEpochDay(target);
+		long length = DateCaseUtil.epochMonthToEpochDay(target + 1) - first;
+		long day = first + Math.min(dayOfMonth, length - 1);
+		return DateCaseUtil.localToUtc(zone, day * MILLIS_PER_DAY + timeOfDay);
+	}
+
+	/**
+	 * 在默认时区中加减年数, 2月29日在非闰年取2月28日
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param years
+	 *            年数, 可以为负
+	 * @return
+	 */
+	public static long addYears(long millis, long years) {
+		return addMonths(millis, years * 12, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中按单位加减时间. 天及以上的单位保持当地时间不变, 更小的单位按实际经过的时长计算
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param amount
+	 *            数量, 可以为负
+	 * @param unit
+	 *            单位, 支持MILLIS至YEARS
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long plus(long millis, long amount, ChronoUnit unit,
+			TimeZone zone) {
+		switch (unit) {
+		case MILLIS:
+		case SECONDS:
+		case MINUTES:
+		case HOURS:
+		case HALF_DAYS:
+			return millis + amount * unit.getDuration().toMillis();
+		case DAYS:
+			return addDays(millis, amount, zone);
+		case WEEKS:
+			return addDays(millis, amount * DAYS_PER_WEEK, zone);
+		case MONTHS:
+			return addMonths(millis, amount, zone);
+		case YEARS:
+			return addMonths(millis, amount * 12, zone);
+		default:
+			throw new IllegalArgumentException("Unsupported unit: " + unit);
+		}
+	}
+
+	/**
+	 * 在默认时区中所在周期的开始时刻, 如当天零点、当月1日零点
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param unit
+	 *            周期单位
+	 * @return
+	 */
+	public static long startOf(long millis, ChronoUnit unit) {
+		return TimeBucketUtil.floor(millis, unit, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中所在周期的开始时刻, 周以周一开始
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param unit
+	 *            周期单位
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long startOf(long millis, ChronoUnit unit, TimeZone zone) {
+		return TimeBucketUtil.floor(millis, unit, zone);
+	}
+
+	/**
+	 * 在时区中所在周期的结束时刻(不包含), 即下一个周期的开始时刻
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param unit
+	 *            周期单位
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long endOf(long millis, ChronoUnit unit, TimeZone zone) {
+		return TimeBucketUtil.shift(TimeBucketUtil.floor(millis, unit, zone),
+				unit, 1, zone);
+	}
+
+	/**
+	 * 创建节假日集合
+	 *
+	 * @param dates
+	 *            yyyy/MM/dd系列的日期字符串, 分隔符任意
+	 * @return
+	 */
+	public static Holidays holidays(String... dates) {
+		long[] days = new long[dates.length];
+		for (int i = 0; i < dates.length; i++) {
+			long local = DateCaseUtil.parseLocal(dates[i], 0,
+					dates[i].length(), DateCaseUtil.YEAR_MONTH_DAY);
+			if (local == DateCaseUtil.INVALID) {
+				throw new IllegalArgumentException("Unparseable date: \""
+						+ dates[i] + "\"");
+			}
+			days[i] = Math.floorDiv(local, MILLIS_PER_DAY);
+		}
+		return new Holidays(days);
+	}
+
+	/**
+	 * 以时间戳创建节假日集合, 取时间戳在时区中的当地日期
+	 *
+	 * @param zone
+	 *            时区
+	 * @param dates
+	 *            毫秒时间戳
+	 * @return
+	 */
+	public static Holidays holidays(TimeZone zone, long... dates) {
+		long[] days = new long[dates.length];
+		for (int i = 0; i < dates.length; i++) {
+			days[i] = toEpochDay(dates[i], zone);
+		}
+		return new Holidays(days);
+	}
+
+	/**
+	 * 在默认时区中是否为工作日
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param holidays
+	 *            节假日, 可以为null
+	 * @return
+	 */
+	public static boolean isBusinessDay(long millis, Holidays holidays) {
+		return isBusinessDay(millis, holidays, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中是否为工作日
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param holidays
+	 *            节假日, 可以为null
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static boolean isBusinessDay(long millis, Holidays holidays,
+			TimeZone zone) {
+		long day = toEpochDay(millis, zone);
+		return dayOfWeek(day) < WEEKDAYS
+				&& (holidays == null || !holidays.containsDay(day));
+	}
+
+	/**
+	 * 在默认时区中加减工作日, 保持当地时间不变
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param days
+	 *            工作日数, 可以为负
+	 * @param holidays
+	 *            节假日, 可以为null
+	 * @return
+	 */
+	public static long addBusinessDays(long millis, long days, Holidays holidays) {
+		return addBusinessDays(millis, days, holidays, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中加减工作日, 保持当地时间不变. 先按整周跳跃, 再对跳过的节假日补足天数,
+	 * 耗时与节假日个数相关而与天数无关
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param days
+	 *            工作日数, 可以为负; 为0时原样返回
+	 * @param holidays
+	 *            节假日, 可以为null
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long addBusinessDays(long millis, long days,
+			Holidays holidays, TimeZone zone) {
+		if (days == 0) {
+			return millis;
+		}
+		long local = millis + zone.getOffset(millis);
+		long day = Math.floorDiv(local, MILLIS_PER_DAY);
+		long timeOfDay = Math.floorMod(local, MILLIS_PER_DAY);
+		long target = addWeekdays(day, days);
+		if (holidays != null) {
+			long skipped = days > 0 ? holidays.count(day + 1, target + 1)
+					: holidays.count(target, day);
+			while (skipped > 0) {
+				long next = addWeekdays(target, days > 0 ? skipped : -skipped);
+				skipped = days > 0 ? holidays.count(target + 1, next + 1)
+						: holidays.count(next, target);
+				target = next;
+			}
+		}
+		return DateCaseUtil.localToUtc(zone, target * MILLIS_PER_DAY
+				+ timeOfDay);
+	}
+
+	/**
+	 * 在时区中统计[from, to)之间的工作日个数(按当地日期)
+	 *
+	 * @param from
+	 *            开始时刻
+	 * @param to
+	 *            结束时刻
+	 * @param holidays
+	 *            节假日, 可以为null
+	 * @param zone
+	 *            时区
+	 * @return 若to早于from, 则返回负数
+	 */
+	public static long businessDaysBetween(long from, long to,
+			Holidays holidays, TimeZone zone) {
+		long fromDay = toEpochDay(from, zone);
+		long toDay = toEpochDay(to, zone);
+		if (toDay < fromDay) {
+			return -businessDaysBetween(to, from, holidays, zone);
+		}
+		long count = weekdaysBefore(toDay) - weekdaysBefore(fromDay);
+		return holidays == null ? count : count
+				- holidays.count(fromDay, toDay);
+	}
+
+	/**
+	 * 在默认时区中生成[from, to)之间以固定步长递增的时间戳
+	 *
+	 * @param from
+	 *            开始时刻(包含)
+	 * @param to
+	 *            结束时刻(不包含)
+	 * @param step
+	 *            步长, > 0
+	 * @param unit
+	 *            步长单位
+	 * @return
+	 */
+	public static long[] range(long from, long to, long step, ChronoUnit unit) {
+		return range(from, to, step, unit, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 在时区中生成[from, to)之间以固定步长递增的时间戳. 第k个元素由开始时刻直接加k个步长得到,
+	 * 按月递增时不会因月末截取而逐渐漂移
+	 *
+	 * @param from
+	 *            开始时刻(包含)
+	 * @param to
+	 *            结束时刻(不包含)
+	 * @param step
+	 *            步长, > 0
+	 * @param unit
+	 *            步长单位
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long[] range(long from, long to, long step, ChronoUnit unit,
+			TimeZone zone) {
+		int size = size(from, to, step, unit, zone);
+		long[] result = new long[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = plus(from, i * step, unit, zone);
+		}
+		return result;
+	}
+
+	/**
+	 * 惰性生成[from, to)之间以固定步长递增的时间戳, 可拆分并行处理
+	 *
+	 * @param from
+	 *            开始时刻(包含)
+	 * @param to
+	 *            结束时刻(不包含)
+	 * @param step
+	 *            步长, > 0
+	 * @param unit
+	 *            步长单位
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static LongStream stream(long from, long to, long step,
+			ChronoUnit unit, TimeZone zone) {
+		int size = size(from, to, step, unit, zone);
+		return StreamSupport.longStream(new RangeSpliterator(from, step, unit,
+				zone, 0, size), false);
+	}
+
+	/**
+	 * [from, to)之间按步长递增的元素个数
+	 *
+	 * @return
+	 */
+	private static int size(long from, long to, long step, ChronoUnit unit,
+			TimeZone zone) {
+		if (step <= 0) {
+			throw new IllegalArgumentException("step must be greater than 0");
+		}
+		if (to <= from) {
+			return 0;
+		}
+		// 以平均时长估算, 再逐个修正
+		double average;
+		switch (unit) {
+		case MONTHS:
+			average = DAYS_PER_MONTH * MILLIS_PER_DAY;
+			break;
+		case YEARS:
+			average = DAYS_PER_MONTH * 12 * MILLIS_PER_DAY;
+			break;
+		default:
+			average = unit.getDuration().toMillis();
+		}
+		long size = (long) ((to - from) / (average * step));
+		while (size > 0 && plus(from, (size - 1) * step, unit, zone) >= to) {
+			size--;
+		}
+		while (plus(from, size * step, unit, zone) < to) {
+			size++;
+		}
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("range is too large: " + size);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * 时间戳在时区中的当地日期距1970-01-01的天数
+	 *
+	 * @return
+	 */
+	private static long toEpochDay(long millis, TimeZone zone) {
+		return Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+	}
+
+	/**
+	 * 星期, 周一为0, 周日为6
+	 *
+	 * @param epochDay
+	 *            距1970-01-01的天数
+	 * @return
+	 */
+	private static int dayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay + MONDAY_OFFSET, DAYS_PER_WEEK);
+	}
+
+	/**
+	 * 1970-01-01所在周的周一至参数日期(不包含)之间的周一至周五天数, 用于相减计算区间内的天数
+	 *
+	 * @param epochDay
+	 *            距1970-01-01的天数
+	 * @return
+	 */
+	private static long weekdaysBefore(long epochDay) {
+		long shifted = epochDay + MONDAY_OFFSET;
+		return Math.floorDiv(shifted, DAYS_PER_WEEK) * WEEKDAYS
+				+ Math.min(Math.floorMod(shifted, DAYS_PER_WEEK), WEEKDAYS);
+	}
+
+	/**
+	 * 加减周一至周五的天数, 从周末出发时先退到周五(向后)或进到周一(向前)
+	 *
+	 * @param epochDay
+	 *            距1970-01-01的天数
+	 * @param days
+	 *            天数, 不为0
+	 * @return
+	 */
+	private static long addWeekdays(long epochDay, long days) {
+		int dayOfWeek = dayOfWeek(epochDay);
+		if (days > 0) {
+			if (dayOfWeek >= WEEKDAYS) {
+				epochDay -= dayOfWeek - (WEEKDAYS - 1);
+				dayOfWeek = WEEKDAYS - 1;
+			}
+			long rest = days % WEEKDAYS;
+			epochDay += days / WEEKDAYS * DAYS_PER_WEEK + rest;
+			return dayOfWeek + rest >= WEEKDAYS ? epochDay + 2 : epochDay;
+		}
+		if (dayOfWeek >= WEEKDAYS) {
+			epochDay += DAYS_PER_WEEK - dayOfWeek;
+			dayOfWeek = 0;
+		}
+		long rest = -days % WEEKDAYS;
+		epochDay -= -days / WEEKDAYS * DAYS_PER_WEEK + rest;
+		return dayOfWeek - rest < 0 ? epochDay - 2 : epochDay;
+	}
+
+	/**
+	 * 节假日集合, 只保存落在周一至周五的日期, 不可变
+	 */
+	public static final class Holidays {
+
+		private final long[] days;
+
+		private Holidays(long[] days) {
+			long[] weekdays = new long[days.length];
+			int length = 0;
+			for (long day : days) {
+				if (dayOfWeek(day) < WEEKDAYS) {
+					weekdays[length++] = day;
+				}
+			}
+			weekdays = Arrays.copyOf(weekdays, length);
+			Arrays.sort(weekdays);
+			int unique = 0;
+			for (int i = 0; i < length; i++) {
+				if (unique == 0 || weekdays[unique - 1] != weekdays[i]) {
+					weekdays[unique++] = weekdays[i];
+				}
+			}
+			this.days = Arrays.copyOf(weekdays, unique);
+		}
+
+		/**
+		 * 时间戳在默认时区中的当地日期是否为节假日
+		 *
+		 * @param millis
+		 *            毫秒时间戳
+		 * @return
+		 */
+		public boolean contains(long millis) {
+			return containsDay(toEpochDay(millis, DateCaseUtil.LOCAL_ZONE));
+		}
+
+		/**
+		 * 节假日个数(不含周末)
+		 *
+		 * @return
+		 */
+		public int size() {
+			return days.length;
+		}
+
+		/**
+		 * 日期是否为节假日
+		 *
+		 * @param epochDay
+		 *            距1970-01-01的天数
+		 * @return
+		 */
+		private boolean containsDay(long epochDay) {
+			return Arrays.binarySearch(days, epochDay) >= 0;
+		}
+
+		/**
+		 * [from, to)之间的节假日个数
+		 *
+		 * @return
+		 */
+		private int count(long from, long to) {
+			return indexOf(to) - indexOf(from);
+		}
+
+		/**
+		 * 第一个不早于参数日期的节假日索引
+		 *
+		 * @return
+		 */
+		private int indexOf(long epochDay) {
+			int index = Arrays.binarySearch(days, epochDay);
+			return index >= 0 ? index : -index - 1;
+		}
+
+	}
+
+	/**
+	 * 按索引计算元素的区间拆分器, 拆分时只切分索引范围
+	 */
+	private static final class RangeSpliterator implements Spliterator.OfLong {
+
+		private final long from;
+		private final long step;
+		private final ChronoUnit unit;
+		private final TimeZone zone;
+		private int index;
+		private final int fence;
+
+		private RangeSpliterator(long from, long step, ChronoUnit unit,
+				TimeZone zone, int index, int fence) {
+			this.from = from;
+			this.step = step;
+			this.unit = unit;
+			this.zone = zone;
+			this.index = index;
+			this.fence = fence;
+		}
+
+		@Override
+		public boolean tryAdvance(LongConsumer action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(plus(from, (long) index++ * step, unit, zone));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(LongConsumer action) {
+			for (; index < fence; index++) {
+				action.accept(plus(from, (long) index * step, unit, zone));
+			}
+		}
+
+		@Override
+		public Spliterator.OfLong trySplit() {
+			int middle = (index + fence) >>> 1;
+			if (middle <= index) {
+				return null;
+			}
+			RangeSpliterator prefix = new RangeSpliterator(from, step, unit,
+					zone, index, middle);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | IMMUTABLE
+					| NONNULL;
+		}
+
+		@Override
+		public Comparator<? super Long> getComparator() {
+			return null;
+		}
+
+	}
+
+}
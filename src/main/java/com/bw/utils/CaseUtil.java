@@ -0,0 +1,431 @@
+package com.bw.utils;
+
+import java.util.Locale;
+
+/**
+ * 大小写转换工具类
+ * <p>
+ * ASCII字符走无分支的位运算快速路径, 仅在遇到非ASCII字符时回退到完整的Unicode转换.
+ * 若转换结果与源串相同, 则直接返回源串实例.
+ *
+ * @author Lychie Fan
+ */
+public class CaseUtil {
+
+	private static final int ASCII_LIMIT = 128;
+	private static final int CASE_BIT = 0x20;
+	private static final char UNDERSCORE = '_';
+	private static final char HYPHEN = '-';
+
+	/**
+	 * 首字母大写
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若首字母已是大写, 则返回源串
+	 */
+	public static String capitalize(String str) {
+		if (StringUtil.isEmpty(str)) {
+			return str;
+		}
+		char first = str.charAt(0);
+		if (first < ASCII_LIMIT) {
+			char upper = (char) toUpperAscii(first);
+			return upper == first ? str : replaceFirst(str, upper);
+		}
+		int codePoint = str.codePointAt(0);
+		int title = Character.toTitleCase(codePoint);
+		if (title == codePoint) {
+			return str;
+		}
+		return new StringBuilder(str.length()).appendCodePoint(title)
+				.append(str, Character.charCount(codePoint), str.length())
+				.toString();
+	}
+
+	/**
+	 * 首字母小写
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若首字母已是小写, 则返回源串
+	 */
+	public static String uncapitalize(String str) {
+		if (StringUtil.isEmpty(str)) {
+			return str;
+		}
+		char first = str.charAt(0);
+		if (first < ASCII_LIMIT) {
+			char lower = (char) toLowerAscii(first);
+			return lower == first ? str : replaceFirst(str, lower);
+		}
+		int codePoint = str.codePointAt(0);
+		int lower = Character.toLowerCase(codePoint);
+		if (lower == codePoint) {
+			return str;
+		}
+		return new StringBuilder(str.length()).appendCodePoint(lower)
+				.append(str, Character.charCount(codePoint), str.length())
+				.toString();
+	}
+
+	/**
+	 * 转换为小写
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若不含大写字母, 则返回源串
+	 */
+	public static String toLowerCase(String str) {
+		if (str == null) {
+			return null;
+		}
+		int length = str.length();
+		int i = 0;
+		for (; i < length; i++) {
+			char ch = str.charAt(i);
+			if (ch >= ASCII_LIMIT) {
+				return str.toLowerCase(Locale.ROOT);
+			}
+			if (toLowerAscii(ch) != ch) {
+				break;
+			}
+		}
+		if (i == length) {
+			return str;
+		}
+		char[] chars = str.toCharArray();
+		for (; i < length; i++) {
+			char ch = chars[i];
+			if (ch >= ASCII_LIMIT) {
+				return str.toLowerCase(Locale.ROOT);
+			}
+			chars[i] = (char) toLowerAscii(ch);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 转换为大写
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若不含小写字母, 则返回源串
+	 */
+	public static String toUpperCase(String str) {
+		if (str == null) {
+			return null;
+		}
+		int length = str.length();
+		int i = 0;
+		for (; i < length; i++) {
+			char ch = str.charAt(i);
+			if (ch >= ASCII_LIMIT) {
+				return str.toUpperCase(Locale.ROOT);
+			}
+			if (toUpperAscii(ch) != ch) {
+				break;
+			}
+		}
+		if (i == length) {
+			return str;
+		}
+		char[] chars = str.toCharArray();
+		for (; i < length; i++) {
+			char ch = chars[i];
+			if (ch >= ASCII_LIMIT) {
+				return str.toUpperCase(Locale.ROOT);
+			}
+			chars[i] = (char) toUpperAscii(ch);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 转换为小驼峰形式, 以下划线、中划线、空白作为单词分隔
+	 *
+	 * <pre>
+	 * CaseUtil.toCamelCase("user_name") = "userName"
+	 * CaseUtil.toCamelCase("USER-NAME") = "userName"
+	 * </pre>
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若结果与源串相同, 则返回源串
+	 */
+	public static String toCamelCase(String str) {
+		return toCamelCase(str, false);
+	}
+
+	/**
+	 * 转换为大驼峰形式, 以下划线、中划线、空白作为单词分隔
+	 *
+	 * <pre>
+	 * CaseUtil.toPascalCase("user_name") = "UserName"
+	 * </pre>
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若结果与源串相同, 则返回源串
+	 */
+	public static String toPascalCase(String str) {
+		return toCamelCase(str, true);
+	}
+
+	/**
+	 * 转换为下划线形式
+	 *
+	 * <pre>
+	 * CaseUtil.toSnakeCase("userName")   = "user_name"
+	 * CaseUtil.toSnakeCase("HTTPServer") = "http_server"
+	 * </pre>
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若结果与源串相同, 则返回源串
+	 */
+	public static String toSnakeCase(String str) {
+		return toDelimited(str, UNDERSCORE);
+	}
+
+	/**
+	 * 转换为中划线形式
+	 *
+	 * <pre>
+	 * CaseUtil.toKebabCase("userName") = "user-name"
+	 * </pre>
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 若结果与源串相同, 则返回源串
+	 */
+	public static String toKebabCase(String str) {
+		return toDelimited(str, HYPHEN);
+	}
+
+	/**
+	 * 忽略大小写比较两个字符序列, 与{@link String#equalsIgnoreCase(String)}语义一致
+	 *
+	 * @param a
+	 *            字符序列
+	 * @param b
+	 *            字符序列
+	 * @return
+	 */
+	public static boolean equalsIgnoreCase(CharSequence a, CharSequence b) {
+		if (a == b) {
+			return true;
+		}
+		if (a == null || b == null) {
+			return false;
+		}
+		int length = a.length();
+		if (length != b.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char x = a.charAt(i);
+			char y = b.charAt(i);
+			if (x == y) {
+				continue;
+			}
+			if ((x | y) < ASCII_LIMIT) {
+				if (toLowerAscii(x) != toLowerAscii(y)) {
+					return false;
+				}
+			} else if (foldCase(x) != foldCase(y)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 忽略大小写的哈希值, 对于{@link #equalsIgnoreCase(CharSequence, CharSequence)}
+	 * 相等的两个字符序列, 其哈希值相同
+	 *
+	 * @param str
+	 *            字符序列
+	 * @return
+	 */
+	public static int hashIgnoreCase(CharSequence str) {
+		if (str == null) {
+			return 0;
+		}
+		int hash = 0;
+		for (int i = 0, length = str.length(); i < length; i++) {
+			char ch = str.charAt(i);
+			hash = 31 * hash
+					+ (ch < ASCII_LIMIT ? toLowerAscii(ch) : foldCase(ch));
+		}
+		return hash;
+	}
+
+	/**
+	 * ASCII字符转小写, 无分支
+	 *
+	 * @param ch
+	 *            ASCII字符
+	 * @return
+	 */
+	static int toLowerAscii(int ch) {
+		// ch在['A', 'Z']区间时两个差值均非负, 符号位为0
+		int upper = ((('Z' - ch) | (ch - 'A')) >>> 31) ^ 1;
+		return ch | (upper << 5);
+	}
+
+	/**
+	 * ASCII字符转大写, 无分支
+	 *
+	 * @param ch
+	 *            ASCII字符
+	 * @return
+	 */
+	static int toUpperAscii(int ch) {
+		int lower = ((('z' - ch) | (ch - 'a')) >>> 31) ^ 1;
+		return ch & ~(lower << 5);
+	}
+
+	/**
+	 * 替换首字符
+	 *
+	 * @param str
+	 *            字符串
+	 * @param first
+	 *            新的首字符
+	 * @return
+	 */
+	private static String replaceFirst(String str, char first) {
+		char[] chars = str.toCharArray();
+		chars[0] = first;
+		return new String(chars);
+	}
+
+	/**
+	 * Unicode大小写折叠, 规则与{@link String#equalsIgnoreCase(String)}相同
+	 *
+	 * @param ch
+	 *            字符
+	 * @return
+	 */
+	private static char foldCase(char ch) {
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	}
+
+	/**
+	 * 是否是单词分隔符
+	 *
+	 * @param ch
+	 *            字符
+	 * @return
+	 */
+	private static boolean isDelimiter(char ch) {
+		return ch == UNDERSCORE || ch == HYPHEN || ch <= ' ';
+	}
+
+	/**
+	 * 转换为驼峰形式
+	 *
+	 * @param str
+	 *            字符串
+	 * @param upperFirst
+	 *            首字母是否大写
+	 * @return
+	 */
+	private static String toCamelCase(String str, boolean upperFirst) {
+		if (StringUtil.isEmpty(str)) {
+			return str;
+		}
+		int length = str.length();
+		StringBuilder builder = new StringBuilder(length);
+		int i = 0;
+		while (i < length) {
+			while (i < length && isDelimiter(str.charAt(i))) {
+				i++;
+			}
+			int begin = i;
+			boolean upperWord = true;
+			while (i < length && !isDelimiter(str.charAt(i))) {
+				if (Character.isLowerCase(str.charAt(i))) {
+					upperWord = false;
+				}
+				i++;
+			}
+			if (begin == i) {
+				break;
+			}
+			boolean capital = builder.length() == 0 ? upperFirst : true;
+			appendCase(builder, str.charAt(begin), capital);
+			for (int j = begin + 1; j < i; j++) {
+				char ch = str.charAt(j);
+				if (upperWord) {
+					appendCase(builder, ch, false);
+				} else {
+					builder.append(ch);
+				}
+			}
+		}
+		return str.contentEquals(builder) ? str : builder.toString();
+	}
+
+	/**
+	 * 转换为以分隔符连接的小写单词形式
+	 *
+	 * @param str
+	 *            字符串
+	 * @param delimiter
+	 *            单词分隔符
+	 * @return
+	 */
+	private static String toDelimited(String str, char delimiter) {
+		if (StringUtil.isEmpty(str)) {
+			return str;
+		}
+		int length = str.length();
+		StringBuilder builder = new StringBuilder(length + 4);
+		boolean pending = false;
+		for (int i = 0; i < length; i++) {
+			char ch = str.charAt(i);
+			if (isDelimiter(ch)) {
+				pending = builder.length() > 0;
+				continue;
+			}
+			if (Character.isUpperCase(ch) && i > 0) {
+				char prev = str.charAt(i - 1);
+				boolean nextLower = i + 1 < length
+						&& Character.isLowerCase(str.charAt(i + 1));
+				if (Character.isLowerCase(prev) || Character.isDigit(prev)
+						|| (Character.isUpperCase(prev) && nextLower)) {
+					pending = builder.length() > 0;
+				}
+			}
+			if (pending) {
+				builder.append(delimiter);
+				pending = false;
+			}
+			appendCase(builder, ch, false);
+		}
+		return str.contentEquals(builder) ? str : builder.toString();
+	}
+
+	/**
+	 * 以指定大小写追加字符
+	 *
+	 * @param builder
+	 *            StringBuilder
+	 * @param ch
+	 *            字符
+	 * @param upper
+	 *            是否大写
+	 */
+	private static void appendCase(StringBuilder builder, char ch,
+			boolean upper) {
+		if (ch < ASCII_LIMIT) {
+			builder.append((char) (upper ? toUpperAscii(ch) : toLowerAscii(ch)));
+		} else {
+			builder.append(upper ? Character.toUpperCase(ch) : Character
+					.toLowerCase(ch));
+		}
+	}
+
+}
@@ -0,0 +1,707 @@
+package com.bw.utils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 按列定义生成大型测试数据文件
+ * <p>
+ * 每行由若干列组成, 列之间以分隔符分隔, 各列的取值来自{@link RandomUtil}的分布. 行按固定大小分块,
+ * 每块使用由种子和块号派生的独立生成器并行生成到字节数组中, 再按顺序以NIO写出, 写出当前批次的同时生成
+ * 下一批次. 因此同一种子与列定义产生的文件逐字节相同, 与线程数无关. 生成器不可变, 每次添加列返回新的生成器.
+ *
+ * <pre>
+ * DatasetGenerator.seeded(42).separator(',')
+ * 		.timestamp(start, 10)
+ * 		.zipf("user-", 100000000L, 1.1)
+ * 		.choice(new String[] { "GET", "POST" }, new double[] { 9, 1 })
+ * 		.gaussian(200, 50, 2)
+ * 		.write(file, 50000000L);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public final class DatasetGenerator {
+
+	private static final int CHUNK_ROWS = 16 * 1024;
+	private static final int TIMESTAMP_LENGTH = 32;
+	private static final int LONG_LENGTH = 20;
+	private static final int DECIMAL_LENGTH = 26;
+	private static final int MAX_DECIMALS = 9;
+	private static final double MAX_FIXED = 9e18;
+	private static final long[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000,
+			100000, 1000000, 10000000, 100000000, 1000000000 };
+
+	private final long seed;
+	private final byte separator;
+	private final Column[] columns;
+
+	private DatasetGenerator(long seed, byte separator, Column[] columns) {
+		this.seed = seed;
+		this.separator = separator;
+		this.columns = columns;
+	}
+
+	/**
+	 * 以种子创建没有列的生成器, 默认以','分隔
+	 *
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static DatasetGenerator seeded(long seed) {
+		return new DatasetGenerator(seed, (byte) ',', new Column[0]);
+	}
+
+	/**
+	 * 列分隔符
+	 *
+	 * @param separator
+	 *            ASCII字符
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator separator(char separator) {
+		if (separator >= 128) {
+			throw new IllegalArgumentException(
+					"separator must be an ASCII character");
+		}
+		return new DatasetGenerator(seed, (byte) separator, columns);
+	}
+
+	/**
+	 * 添加自定义列
+	 *
+	 * @param column
+	 *            列
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator column(Column column) {
+		Column[] extended = Arrays.copyOf(columns, columns.length + 1);
+		extended[columns.length] = column;
+		return new DatasetGenerator(seed, separator, extended);
+	}
+
+	/**
+	 * 递增的时间戳列, 以UTC时区的yyyy/MM/dd HH:mm:ss:SSS格式写出, 与JVM默认时区无关
+	 *
+	 * @param start
+	 *            起始毫秒时间戳
+	 * @param step
+	 *            每行的平均间隔毫秒数, > 0
+	 * @return 新的生成器
+	 * @see #timestamp(long, long, TimeZone)
+	 */
+	public DatasetGenerator timestamp(long start, long step) {
+		return timestamp(start, step, TimeZone.getTimeZone("UTC"));
+	}
+
+	/**
+	 * 递增的时间戳列, 以{@link DateCaseUtil#format(long, TimeZone, byte[], int)}按指定时区写出.
+	 * 第row行落在[start + row * step, start + (row + 1) * step)区间内, 因此各行不减.
+	 * 写出的是不含时区的当地时间, 解析回时间戳时须使用同一时区, 例如
+	 * {@link DateCaseUtil#parseMillis(CharSequence)}按JVM默认时区解析, 只有默认时区与zone相同时才能还原
+	 *
+	 * @param start
+	 *            起始毫秒时间戳
+	 * @param step
+	 *            每行的平均间隔毫秒数, > 0
+	 * @param zone
+	 *            写出时使用的时区
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator timestamp(final long start, final long step,
+			final TimeZone zone) {
+		checkPositive(step);
+		if (zone == null) {
+			throw new IllegalArgumentException("zone must not be null");
+		}
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				long millis = start + row * step
+						+ RandomUtil.nextLong(random, step);
+				return DateCaseUtil.format(millis, zone, buffer, offset);
+			}
+
+			@Override
+			public int maxLength() {
+				return TIMESTAMP_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * 递增的毫秒时间戳列, 以十进制数写出
+	 *
+	 * @param start
+	 *            起始毫秒时间戳
+	 * @param step
+	 *            每行的平均间隔毫秒数, > 0
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator epochMillis(final long start, final long step) {
+		checkPositive(step);
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				return writeLong(start + row * step
+						+ RandomUtil.nextLong(random, step), buffer, offset);
+			}
+
+			@Override
+			public int maxLength() {
+				return LONG_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * 行号列
+	 *
+	 * @param start
+	 *            第一行的值
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator sequence(final long start) {
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				return writeLong(start + row, buffer, offset);
+			}
+
+			@Override
+			public int maxLength() {
+				return LONG_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * [x, y]区间均匀分布的整数列
+	 *
+	 * @param x
+	 *            下界
+	 * @param y
+	 *            上界, > x
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator uniform(final long x, final long y) {
+		if (x >= y) { // ensure y > x
+			throw new IllegalArgumentException("y must be greater than x");
+		}
+		final long bound = y - x + 1;
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				return writeLong(x + RandomUtil.nextLong(random, bound),
+						buffer, offset);
+			}
+
+			@Override
+			public int maxLength() {
+				return LONG_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * Zipf分布的键列, 写出前缀加[1, n]区间的键, 用于模拟热点键
+	 *
+	 * @param prefix
+	 *            ASCII前缀
+	 * @param n
+	 *            键的个数
+	 * @param exponent
+	 *            指数, 越大越集中
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator zipf(String prefix, long n, double exponent) {
+		final byte[] bytes = ascii(prefix);
+		final RandomUtil.Zipf zipf = RandomUtil.zipf(n, exponent);
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+				return writeLong(zipf.next(random), buffer, offset
+						+ bytes.length);
+			}
+
+			@Override
+			public int maxLength() {
+				return bytes.length + LONG_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * 泊松分布的整数列
+	 *
+	 * @param mean
+	 *            均值
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator poisson(final double mean) {
+		RandomUtil.checkScale(mean);
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				return writeLong(RandomUtil.poisson(random, mean), buffer,
+						offset);
+			}
+
+			@Override
+			public int maxLength() {
+				return LONG_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * 正态分布的小数列
+	 *
+	 * @param mean
+	 *            均值
+	 * @param stddev
+	 *            标准差
+	 * @param decimals
+	 *            小数位数, 0至9
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator gaussian(final double mean, final double stddev,
+			int decimals) {
+		RandomUtil.checkScale(stddev);
+		return decimal(random -> mean + stddev * RandomUtil.gaussian(random),
+				decimals);
+	}
+
+	/**
+	 * 指数分布的小数列, 适合模拟响应时间、请求间隔
+	 *
+	 * @param mean
+	 *            均值
+	 * @param decimals
+	 *            小数位数, 0至9
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator exponential(final double mean, int decimals) {
+		RandomUtil.checkScale(mean);
+		return decimal(random -> mean * RandomUtil.exponential(random),
+				decimals);
+	}
+
+	/**
+	 * 对数正态分布的小数列, 适合模拟金额、报文大小
+	 *
+	 * @param mu
+	 *            对数的均值
+	 * @param sigma
+	 *            对数的标准差
+	 * @param decimals
+	 *            小数位数, 0至9
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator logNormal(final double mu, final double sigma,
+			int decimals) {
+		RandomUtil.checkScale(sigma);
+		return decimal(random -> Math.exp(mu + sigma
+				* RandomUtil.gaussian(random)), decimals);
+	}
+
+	/**
+	 * 从候选值中均匀选取的列
+	 *
+	 * @param values
+	 *            ASCII候选值
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator choice(String[] values) {
+		double[] weights = new double[values.length];
+		Arrays.fill(weights, 1);
+		return choice(values, weights);
+	}
+
+	/**
+	 * 从候选值中按权重选取的列
+	 *
+	 * @param values
+	 *            ASCII候选值
+	 * @param weights
+	 *            与候选值一一对应的权重
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator choice(String[] values, double[] weights) {
+		if (values.length != weights.length) {
+			throw new IllegalArgumentException(
+					"weights must be the same length as values");
+		}
+		final AliasTable table = new AliasTable(weights);
+		final byte[][] bytes = new byte[values.length][];
+		int length = 0;
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = ascii(values[i]);
+			length = Math.max(length, bytes[i].length);
+		}
+		final int maxLength = length;
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				byte[] value = bytes[table.sample(random)];
+				System.arraycopy(value, 0, buffer, offset, value.length);
+				return offset + value.length;
+			}
+
+			@Override
+			public int maxLength() {
+				return maxLength;
+			}
+
+		});
+	}
+
+	/**
+	 * 随机令牌列
+	 *
+	 * @param generator
+	 *            字母表为ASCII字符的令牌生成器
+	 * @param length
+	 *            长度
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator token(final TokenGenerator generator,
+			final int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException(
+					"length must be greater than or equal 0");
+		}
+		if (!generator.isAscii()) {
+			throw new IllegalArgumentException(
+					"alphabet must contain only ASCII characters");
+		}
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				generator.fill(buffer, offset, length, random);
+				return offset + length;
+			}
+
+			@Override
+			public int maxLength() {
+				return length;
+			}
+
+		});
+	}
+
+	/**
+	 * 常量列
+	 *
+	 * @param value
+	 *            ASCII值
+	 * @return 新的生成器
+	 */
+	public DatasetGenerator literal(String value) {
+		final byte[] bytes = ascii(value);
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+				return offset + bytes.length;
+			}
+
+			@Override
+			public int maxLength() {
+				return bytes.length;
+			}
+
+		});
+	}
+
+	/**
+	 * 生成rows行写入文件, 文件已存在时覆盖
+	 *
+	 * @param file
+	 *            文件
+	 * @param rows
+	 *            行数
+	 * @throws Exception
+	 */
+	public void write(File file, long rows) throws Exception {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			FileReadAndOutStreamUtils.mkdir(parent, true);
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(channel, rows);
+		} catch (Throwable e) {
+			throw new Exception(e);
+		}
+	}
+
+	/**
+	 * 生成rows行写入通道. 各批次的块并行生成, 写出当前批次的同时生成下一批次
+	 *
+	 * @param channel
+	 *            通道
+	 * @param rows
+	 *            行数
+	 * @throws IOException
+	 */
+	public void write(WritableByteChannel channel, long rows)
+			throws IOException {
+		if (rows < 0) {
+			throw new IllegalArgumentException(
+					"rows must be greater than or equal 0");
+		}
+		if (columns.length == 0) {
+			throw new IllegalArgumentException("columns must not be empty");
+		}
+		long chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+		int batch = ForkJoinPool.getCommonPoolParallelism() * 2;
+		CompletableFuture<ByteBuffer[]> next = render(0, Math.min(batch,
+				chunks), rows);
+		for (long chunk = 0; chunk < chunks; chunk += batch) {
+			ByteBuffer[] buffers = next.join();
+			long following = chunk + batch;
+			if (following < chunks) {
+				next = render(following, Math.min(following + batch, chunks),
+						rows);
+			}
+			for (ByteBuffer buffer : buffers) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 异步并行生成[from, to)区间的块
+	 *
+	 * @return
+	 */
+	private CompletableFuture<ByteBuffer[]> render(final long from,
+			final long to, final long rows) {
+		return CompletableFuture.supplyAsync(() -> IntStream
+				.range(0, (int) (to - from)).parallel()
+				.mapToObj(i -> render(from + i, rows))
+				.toArray(ByteBuffer[]::new));
+	}
+
+	/**
+	 * 生成一块, 使用由种子和块号派生的生成器
+	 *
+	 * @param chunk
+	 *            块号
+	 * @param rows
+	 *            总行数
+	 * @return
+	 */
+	private ByteBuffer render(long chunk, long rows) {
+		Random random = RandomUtil.blockRandom(seed, chunk);
+		long first = chunk * CHUNK_ROWS;
+		long last = Math.min(first + CHUNK_ROWS, rows);
+		int rowLength = columns.length;
+		for (Column column : columns) {
+			rowLength += column.maxLength();
+		}
+		byte[] buffer = new byte[(int) (last - first) * rowLength];
+		int offset = 0;
+		for (long row = first; row < last; row++) {
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					buffer[offset++] = separator;
+				}
+				offset = columns[i].write(row, random, buffer, offset);
+			}
+			buffer[offset++] = '\n';
+		}
+		return ByteBuffer.wrap(buffer, 0, offset);
+	}
+
+	/**
+	 * 定点小数列
+	 *
+	 * @param distribution
+	 *            分布
+	 * @param decimals
+	 *            小数位数
+	 * @return 新的生成器
+	 */
+	private DatasetGenerator decimal(
+			final ToDoubleFunction<Random> distribution, final int decimals) {
+		if (decimals < 0 || decimals > MAX_DECIMALS) {
+			throw new IllegalArgumentException(
+					"decimals must be between 0 and 9");
+		}
+		return column(new Column() {
+
+			@Override
+			public int write(long row, Random random, byte[] buffer, int offset) {
+				return writeDecimal(distribution.applyAsDouble(random),
+						decimals, buffer, offset);
+			}
+
+			@Override
+			public int maxLength() {
+				return DECIMAL_LENGTH;
+			}
+
+		});
+	}
+
+	/**
+	 * 以十进制写入整数
+	 *
+	 * @param value
+	 *            整数
+	 * @param buffer
+	 *            字节数组
+	 * @param offset
+	 *            开始写入的索引
+	 * @return 写入结束的索引
+	 */
+	static int writeLong(long value, byte[] buffer, int offset) {
+		if (value < 0) {
+			if (value == Long.MIN_VALUE) {
+				byte[] bytes = Long.toString(value).getBytes(
+						StandardCharsets.US_ASCII);
+				System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+				return offset + bytes.length;
+			}
+			buffer[offset++] = '-';
+			value = -value;
+		}
+		int digits = 1;
+		for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+			digits++;
+		}
+		int end = offset + digits;
+		for (int i = end - 1; i >= offset; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return end;
+	}
+
+	/**
+	 * 以定点格式写入小数, 超出long范围时以科学计数法写入
+	 *
+	 * @param value
+	 *            小数
+	 * @param decimals
+	 *            小数位数
+	 * @param buffer
+	 *            字节数组
+	 * @param offset
+	 *            开始写入的索引
+	 * @return 写入结束的索引
+	 */
+	private static int writeDecimal(double value, int decimals, byte[] buffer,
+			int offset) {
+		long power = POWERS_OF_TEN[decimals];
+		double scaled = value * power;
+		if (!(Math.abs(scaled) < MAX_FIXED)) {
+			byte[] bytes = Double.toString(value).getBytes(
+					StandardCharsets.US_ASCII);
+			System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+			return offset + bytes.length;
+		}
+		long fixed = Math.round(scaled);
+		if (fixed < 0) {
+			buffer[offset++] = '-';
+			fixed = -fixed;
+		}
+		offset = writeLong(fixed / power, buffer, offset);
+		if (decimals == 0) {
+			return offset;
+		}
+		buffer[offset++] = '.';
+		long fraction = fixed % power;
+		for (int i = offset + decimals - 1; i >= offset; i--) {
+			buffer[i] = (byte) ('0' + fraction % 10);
+			fraction /= 10;
+		}
+		return offset + decimals;
+	}
+
+	private static void checkPositive(long step) {
+		if (step <= 0) {
+			throw new IllegalArgumentException("step must be greater than 0");
+		}
+	}
+
+	/**
+	 * ASCII编码, 含非ASCII字符时抛出异常
+	 *
+	 * @param value
+	 *            字符串
+	 * @return
+	 */
+	private static byte[] ascii(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 128) {
+				throw new IllegalArgumentException(
+						"value must contain only ASCII characters");
+			}
+		}
+		return value.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * 列. 实现必须是无状态的, 只能通过传入的生成器取随机数, 才能保证结果可复现
+	 */
+	public interface Column {
+
+		/**
+		 * 写入第row行的值
+		 *
+		 * @param row
+		 *            行号, 从0开始
+		 * @param random
+		 *            当前块的生成器
+		 * @param buffer
+		 *            字节数组, 从offset开始至少有{@link #maxLength()}个字节的空间
+		 * @param offset
+		 *            开始写入的索引
+		 * @return 写入结束的索引
+		 */
+		int write(long row, Random random, byte[] buffer, int offset);
+
+		/**
+		 * 每行最多写入的字节数
+		 *
+		 * @return
+		 */
+		int maxLength();
+
+	}
+
+}
@@ -1,7 +1,33 @@
 package com.bw.utils;
+import java.io.File;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.WeekFields;
+import java.util.BitSet;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
 
 /**
  * 日期时间工具类
@@ -15,6 +41,22 @@ public class DateCaseUtil {
 	private static final int fullIndex = 4 * 5;
 	private static final String MATCH_TEMPLATE = "yyyy/MM/dd HH:mm:ss:SSS";
 	private static final String PATTERN_TEMPLATE = "0000/00/00 00:00:00:000";
+	private static final String DAY_TEMPLATE = "yyyy/MM/dd";
+	private static final int[] FIELD_WIDTHS = { 4, 2, 2, 2, 2, 2, 3 };
+	private static final int REQUIRED_FIELDS = 3;
+	static final long MILLIS_PER_DAY = 86400000L;
+	private static final long DAYS_0000_TO_1970 = 719468L;
+	private static final long DAYS_PER_CYCLE = 146097L;
+	static final long INVALID = Long.MIN_VALUE;
+	static final int[] YEAR_MONTH_DAY = { 0, 1, 2 };
+	static final int[] DAY_MONTH_YEAR = { 2, 1, 0 };
+	static final int[] MONTH_DAY_YEAR = { 1, 2, 0 };
+	private static final int TWO_DIGIT_YEAR_SPAN = 80;
+	private static final int EPOCH_YEAR = 1970;
+	static final TimeZone LOCAL_ZONE = TimeZone.getDefault();
+	private static final ZoneId LOCAL_ZONE_ID = LOCAL_ZONE.toZoneId();
+	private static volatile Stamp lastStamp = new Stamp(Long.MIN_VALUE, 0, null);
+	private static final ConcurrentMap<String, DateTimeFormatter> formatters = new ConcurrentHashMap<String, DateTimeFormatter>();
 	private static final ThreadLocal<SimpleDateFormat> local = new ThreadLocal<SimpleDateFormat>() {
 		@Override
 		protected SimpleDateFormat initialValue() {
@@ -28,7 +70,9 @@ public class DateCaseUtil {
 	 * @param pattern
 	 *            模式串
 	 * @return
+	 * @deprecated 每次调用都会重新解析模式串, 请使用{@link #getDateTimeFormatter(String)}
 	 */
+	@Deprecated
 	public static SimpleDateFormat getSimpleDateFormat(String pattern) {
 		SimpleDateFormat format = local.get();
 		format.applyPattern(pattern);
@@ -36,14 +80,36 @@ public class DateCaseUtil {
 	}
 
 	/**
-	 * 获取表示当前时间的字符串
+	 * 获取编译后的日期时间格式化器, 模式串语法与SimpleDateFormat相同.
+	 * 格式化器不可变, 按模式串全局缓存, 可在任意线程间共享
+	 * 
+	 * @param pattern
+	 *            模式串
+	 * @return
+	 */
+	public static DateTimeFormatter getDateTimeFormatter(String pattern) {
+		DateTimeFormatter formatter = formatters.get(pattern);
+		if (formatter == null) {
+			formatter = compile(pattern);
+			DateTimeFormatter existing = formatters.putIfAbsent(pattern,
+					formatter);
+			if (existing != null) {
+				formatter = existing;
+			}
+		}
+		return formatter;
+	}
+
+	/**
+	 * 获取表示当前时间的字符串. 高频调用且允许少许误差时, 请使用{@link CachedClock}
 	 * 
 	 * @param pattern
 	 *            模式串
 	 * @return
 	 */
 	public static String getCurrentDate(String pattern) {
-		return format(new Date(), pattern);
+		return getDateTimeFormatter(pattern).format(
+				Instant.ofEpochMilli(System.currentTimeMillis()));
 	}
 
 	/**
@@ -54,22 +120,15 @@ public class DateCaseUtil {
 	 * @return
 	 */
 	public static String format(Date date) {
-		SimpleDateFormat format = getSimpleDateFormat(MATCH_TEMPLATE);
-		String dateStr = format.format(date);
-		String ms = dateStr.substring(dateStr.length() - step);
-		if (Short.parseShort(ms) == 0) {
-			dateStr = dateStr.substring(0, dateStr.length() - step - 1);
-		} else {
-			return dateStr;
+		long millis = date.getTime();
+		Stamp stamp = stamp(millis);
+		int milli = (int) Math.floorMod(millis, 1000L);
+		if (milli != 0) {
+			StringBuilder builder = new StringBuilder(stamp.chars.length + 3);
+			builder.append(stamp.chars);
+			return appendMilli(builder, milli).toString();
 		}
-		String time = dateStr.substring(dateStr.length() - step * 3 + 1);
-		time = time.replace(":", "");
-		if (Integer.parseInt(time) == 0) {
-			dateStr = dateStr.substring(0, dateStr.length() - step * 3);
-		} else {
-			return dateStr;
-		}
-		return dateStr;
+		return stamp.midnight ? stamp.day.text : stamp.text;
 	}
 
 	/**
@@ -82,12 +141,96 @@ public class DateCaseUtil {
 	 * @return
 	 */
 	public static String format(Date date, String pattern) {
-		SimpleDateFormat format = getSimpleDateFormat(pattern);
-		return format.format(date);
+		DateTimeFormatter formatter = getDateTimeFormatter(pattern);
+		return formatter.format(Instant.ofEpochMilli(date.getTime()));
+	}
+
+	/**
+	 * 以yyyy/MM/dd HH:mm:ss:SSS格式化时间戳, 追加到参数缓冲区.
+	 * 日期与时间部分按秒缓存, 同一秒内的时间戳只需追加毫秒数字, 适合高频输出日志时间
+	 * 
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param buffer
+	 *            缓冲区
+	 * @return 参数缓冲区
+	 */
+	public static StringBuilder format(long millis, StringBuilder buffer) {
+		buffer.append(stamp(millis).chars);
+		return appendMilli(buffer, (int) Math.floorMod(millis, 1000L));
+	}
+
+	/**
+	 * 以yyyy/MM/dd HH:mm:ss:SSS格式化时间戳, 以ASCII编码写入字节数组
+	 * 
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param buffer
+	 *            字节数组
+	 * @param offset
+	 *            开始写入的索引
+	 * @return 写入结束的索引
+	 */
+	public static int format(long millis, byte[] buffer, int offset) {
+		byte[] bytes = stamp(millis).bytes;
+		int milli = (int) Math.floorMod(millis, 1000L);
+		System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+		offset += bytes.length;
+		buffer[offset++] = (byte) ('0' + milli / 100);
+		buffer[offset++] = (byte) ('0' + milli / 10 % 10);
+		buffer[offset++] = (byte) ('0' + milli % 10);
+		return offset;
 	}
 
 	/**
-	 * 解析字符串类型日期, 为参数自动匹配解析模式串
+	 * 以指定时区的yyyy/MM/dd HH:mm:ss:SSS格式化时间戳, 以ASCII编码写入字节数组.
+	 * 输出与{@link #format(long, byte[], int)}相同, 但逐个计算数字而不使用按秒缓存的前缀,
+	 * 不产生对象. 输出不含时区, 解析回时间戳时须使用同一时区
+	 * 
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param zone
+	 *            时区
+	 * @param buffer
+	 *            字节数组
+	 * @param offset
+	 *            开始写入的索引
+	 * @return 写入结束的索引
+	 */
+	public static int format(long millis, TimeZone zone, byte[] buffer,
+			int offset) {
+		long local = millis + zone.getOffset(millis);
+		long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+		int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+		long epochMonth = toEpochMonth(epochDay);
+		long year = EPOCH_YEAR + Math.floorDiv(epochMonth, 12L);
+		// 与yyyy一致, 按纪元中的年份写出
+		long yearOfEra = year >= 1 ? year : 1 - year;
+		int width = FIELD_WIDTHS[0];
+		for (long bound = 10000L; width < 19 && yearOfEra >= bound; bound *= 10) {
+			width++;
+		}
+		offset = writeDigits(yearOfEra, width, buffer, offset);
+		buffer[offset++] = '/';
+		offset = writeDigits(Math.floorMod(epochMonth, 12L) + 1, 2, buffer,
+				offset);
+		buffer[offset++] = '/';
+		offset = writeDigits(epochDay - epochMonthToEpochDay(epochMonth) + 1,
+				2, buffer, offset);
+		buffer[offset++] = ' ';
+		offset = writeDigits(millisOfDay / 3600000, 2, buffer, offset);
+		buffer[offset++] = ':';
+		offset = writeDigits(millisOfDay / 60000 % 60, 2, buffer, offset);
+		buffer[offset++] = ':';
+		offset = writeDigits(millisOfDay / 1000 % 60, 2, buffer, offset);
+		buffer[offset++] = ':';
+		return writeDigits(millisOfDay % 1000, 3, buffer, offset);
+	}
+
+	/**
+	 * 解析字符串类型日期, 为参数自动匹配解析模式串. 与SimpleDateFormat一样宽松,
+	 * 超出范围的字段会进位(如2019/13/01解析为2020/01/01); 需要严格校验且不创建对象时使用
+	 * {@link #parseMillis(CharSequence)}
 	 * 
 	 * @param date
 	 *            日期字符串
@@ -107,7 +250,8 @@ public class DateCaseUtil {
 	}
 
 	/**
-	 * 解析字符串类型日期
+	 * 解析字符串类型日期, 结果与SimpleDateFormat一致: 夏令时重复的时刻按标准时间换算,
+	 * 含G、Y、w、W、D、F、E、u字段的模式串直接交由SimpleDateFormat解析
 	 * 
 	 * @param date
 	 *            日期字符串
@@ -118,13 +262,90 @@ public class DateCaseUtil {
 	 */
 	public static Date parse(String date, String pattern) throws Exception {
 		try {
-			SimpleDateFormat format = getSimpleDateFormat(pattern);
-			return format.parse(date);
+			return new Date(parseMillis(date, pattern));
 		} catch (Throwable e) {
 			throw new Exception(e);
 		}
 	}
 
+	/**
+	 * 批量解析日期字符串, 数据量较大时在ForkJoinPool中并行解析
+	 * 
+	 * @param dates
+	 *            日期字符串数组
+	 * @param pattern
+	 *            模式串, 为null时按{@link #parseMillis(CharSequence)}解析
+	 * @param errors
+	 *            记录解析失败的索引, 可以为null
+	 * @return 与参数一一对应的毫秒时间戳, 解析失败的位置为{@link Long#MIN_VALUE}
+	 */
+	public static long[] parseAll(String[] dates, String pattern, BitSet errors) {
+		return parseAll(dates, null, 0, pattern, errors);
+	}
+
+	/**
+	 * 批量解析日期字符串, 数据量较大时在ForkJoinPool中并行解析
+	 * 
+	 * @param dates
+	 *            日期字符串列表
+	 * @param pattern
+	 *            模式串, 为null时按{@link #parseMillis(CharSequence)}解析
+	 * @param errors
+	 *            记录解析失败的索引, 可以为null
+	 * @return 与参数一一对应的毫秒时间戳, 解析失败的位置为{@link Long#MIN_VALUE}
+	 */
+	public static long[] parseAll(List<String> dates, String pattern,
+			BitSet errors) {
+		return parseAll(dates.toArray(new String[dates.size()]), pattern, errors);
+	}
+
+	/**
+	 * 批量解析日期字符串, 数据量较大时在ForkJoinPool中并行解析
+	 * 
+	 * @param dates
+	 *            日期字符串流
+	 * @param pattern
+	 *            模式串, 为null时按{@link #parseMillis(CharSequence)}解析
+	 * @param errors
+	 *            记录解析失败的索引(按流的遇到顺序), 可以为null
+	 * @return 毫秒时间戳, 解析失败的位置为{@link Long#MIN_VALUE}
+	 */
+	public static long[] parseAll(Stream<String> dates, String pattern,
+			BitSet errors) {
+		return parseAll(dates.toArray(String[]::new), pattern, errors);
+	}
+
+	/**
+	 * 读取文件并批量解析每一行指定列的日期
+	 * 
+	 * <pre>
+	 * BitSet errors = new BitSet();
+	 * long[] times = DateCaseUtil.parseColumn(file, Splitter.on(','), 2, null, errors);
+	 * </pre>
+	 * 
+	 * @param file
+	 *            文件
+	 * @param splitter
+	 *            列分割器
+	 * @param column
+	 *            列索引, 从0开始
+	 * @param pattern
+	 *            模式串, 为null时按{@link #parseMillis(CharSequence)}解析
+	 * @param errors
+	 *            记录解析失败或缺少该列的行索引, 可以为null
+	 * @return 与文件各行一一对应的毫秒时间戳, 解析失败的位置为{@link Long#MIN_VALUE}
+	 * @throws Exception
+	 */
+	public static long[] parseColumn(File file, Splitter splitter, int column,
+			String pattern, BitSet errors) throws Exception {
+		if (column < 0) {
+			throw new IllegalArgumentException(
+					"column must be greater than or equal 0");
+		}
+		return parseAll(FileReadAndOutStreamUtils.read(file), splitter, column,
+				pattern, errors);
+	}
+
 	/**
 	 * 格式化参数日期字符串, 源日期字符填充到预设模板
 	 * 
@@ -206,4 +427,852 @@ public class DateCaseUtil {
 		pattern[i] = '0';
 	}
 
+	/**
+	 * 解析yyyy/MM/dd HH:mm:ss:SSS系列的日期字符串, 得到毫秒时间戳, 不创建任何对象.
+	 * 分隔符可以是任意单个非数字字符; 字段可以省略前导0, 字段达到最大宽度时可以省略其后的
+	 * 分隔符(如20191206); 年月日之后的字段均可省略, 省略的字段取0
+	 * 
+	 * <pre>
+	 * DateCaseUtil.parseMillis("2019/12/06 12:30:00:5")
+	 * DateCaseUtil.parseMillis("2019-1-6 8:09")
+	 * DateCaseUtil.parseMillis("20191206123000")
+	 * </pre>
+	 * 
+	 * @param date
+	 *            日期字符串
+	 * @return
+	 */
+	public static long parseMillis(CharSequence date) {
+		return parseMillis(date, 0, date.length());
+	}
+
+	/**
+	 * 解析字符序列区间内yyyy/MM/dd HH:mm:ss:SSS系列的日期, 得到毫秒时间戳, 不创建任何对象
+	 * 
+	 * @param date
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @return
+	 */
+	public static long parseMillis(CharSequence date, int begin, int end) {
+		long millis = parseLenient(date, begin, end);
+		if (millis == INVALID) {
+			throw new IllegalArgumentException("Unparseable date: \""
+					+ date.subSequence(begin, end) + "\"");
+		}
+		return millis;
+	}
+
+	/**
+	 * 逐字符解析yyyy/MM/dd HH:mm:ss:SSS系列的日期
+	 * 
+	 * @param date
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @return 若格式错误或字段超出范围, 则返回{@link #INVALID}
+	 */
+	static long parseLenient(CharSequence date, int begin, int end) {
+		long local = parseLocal(date, begin, end, YEAR_MONTH_DAY);
+		return local == INVALID ? INVALID : localToUtc(LOCAL_ZONE, local);
+	}
+
+	/**
+	 * 逐字符解析年月日按指定顺序排列、其后为HH:mm:ss:SSS的日期, 得到以UTC计算的当地时间毫秒数
+	 * 
+	 * @param date
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @param order
+	 *            年月日的排列顺序, 如{@link #DAY_MONTH_YEAR}
+	 * @return 若格式错误或字段超出范围, 则返回{@link #INVALID}
+	 */
+	static long parseLocal(CharSequence date, int begin, int end, int[] order) {
+		while (begin < end && date.charAt(begin) <= ' ') {
+			begin++;
+		}
+		while (end > begin && date.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0, milli = 0;
+		int i = begin, field = 0;
+		while (field < FIELD_WIDTHS.length && i < end) {
+			int index = field < order.length ? order[field] : field;
+			int width = FIELD_WIDTHS[index];
+			int value = 0, digits = 0;
+			for (; digits < width && i < end; digits++, i++) {
+				int digit = date.charAt(i) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				value = value * 10 + digit;
+			}
+			if (digits == 0) {
+				return INVALID;
+			}
+			field++;
+			switch (index) {
+			case 0:
+				year = value;
+				break;
+			case 1:
+				month = value;
+				break;
+			case 2:
+				day = value;
+				break;
+			case 3:
+				hour = value;
+				break;
+			case 4:
+				minute = value;
+				break;
+			case 5:
+				second = value;
+				break;
+			default:
+				milli = value;
+			}
+			// 跳过字段之间的单个分隔符, 末尾的分隔符视为格式错误
+			if (i < end - 1 && isSeparator(date.charAt(i))) {
+				i++;
+			}
+		}
+		if (i < end || field < REQUIRED_FIELDS) {
+			return INVALID;
+		}
+		if (month < 1 || month > 12 || day < 1
+				|| day > lengthOfMonth(year, month) || hour > 23
+				|| minute > 59 || second > 59) {
+			return INVALID;
+		}
+		return toEpochDay(year, month, day) * MILLIS_PER_DAY + hour * 3600000L
+				+ minute * 60000L + second * 1000L + milli;
+	}
+
+	/**
+	 * 公历日期转换为距1970-01-01的天数
+	 * 
+	 * @param year
+	 *            年
+	 * @param month
+	 *            月, [1, 12]
+	 * @param day
+	 *            日
+	 * @return
+	 */
+	static long toEpochDay(long year, int month, int day) {
+		year -= month <= 2 ? 1 : 0;
+		long era = (year >= 0 ? year : year - 399) / 400;
+		long yearOfEra = year - era * 400;
+		long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day
+				- 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100
+				+ dayOfYear;
+		return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+	/**
+	 * 距1970-01-01的天数转换为距1970年1月的月数
+	 * 
+	 * @param epochDay
+	 *            距1970-01-01的天数
+	 * @return
+	 */
+	static long toEpochMonth(long epochDay) {
+		long days = epochDay + DAYS_0000_TO_1970;
+		long era = (days >= 0 ? days : days - DAYS_PER_CYCLE + 1) / DAYS_PER_CYCLE;
+		long dayOfEra = days - era * DAYS_PER_CYCLE;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long shifted = (5 * dayOfYear + 2) / 153;
+		long month = shifted < 10 ? shifted + 3 : shifted - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return (year - EPOCH_YEAR) * 12 + month - 1;
+	}
+
+	/**
+	 * 距1970年1月的月数转换为该月1日距1970-01-01的天数
+	 * 
+	 * @param epochMonth
+	 *            距1970年1月的月数
+	 * @return
+	 */
+	static long epochMonthToEpochDay(long epochMonth) {
+		return toEpochDay(EPOCH_YEAR + Math.floorDiv(epochMonth, 12L),
+				(int) Math.floorMod(epochMonth, 12L) + 1, 1);
+	}
+
+	/**
+	 * 月份的天数
+	 * 
+	 * @param year
+	 *            年
+	 * @param month
+	 *            月, [1, 12]
+	 * @return
+	 */
+	static int lengthOfMonth(long year, int month) {
+		if (month == 2) {
+			return isLeapYear(year) ? 29 : 28;
+		}
+		return 30 + ((month + (month >> 3)) & 1);
+	}
+
+	/**
+	 * 是否是闰年
+	 * 
+	 * @param year
+	 *            年
+	 * @return
+	 */
+	static boolean isLeapYear(long year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	/**
+	 * 当地时间的毫秒数转换为UTC时间戳. 与SimpleDateFormat一致, 夏令时跳过或重复的时刻均按较小的偏移
+	 * (通常为标准时间)换算
+	 * 
+	 * @param zone
+	 *            时区
+	 * @param local
+	 *            以UTC计算的当地时间毫秒数
+	 * @return
+	 */
+	static long localToUtc(TimeZone zone, long local) {
+		int before = zone.getOffset(local - MILLIS_PER_DAY);
+		int after = zone.getOffset(local + MILLIS_PER_DAY);
+		if (before == after) {
+			// 前后一天内没有偏移变化
+			return local - before;
+		}
+		boolean beforeValid = zone.getOffset(local - before) == before;
+		boolean afterValid = zone.getOffset(local - after) == after;
+		int offset;
+		if (beforeValid != afterValid) {
+			offset = beforeValid ? before : after;
+		} else {
+			offset = Math.min(before, after);
+		}
+		return local - offset;
+	}
+
+	/**
+	 * 获取时间戳所在秒的格式化前缀, 与最近一次使用的同一秒时直接复用
+	 * 
+	 * @param millis
+	 *            毫秒时间戳
+	 * @return
+	 */
+	private static Stamp stamp(long millis) {
+		long second = Math.floorDiv(millis, 1000L);
+		Stamp stamp = lastStamp;
+		if (stamp.second != second) {
+			stamp = new Stamp(second, LOCAL_ZONE.getOffset(millis), stamp.day);
+			lastStamp = stamp;
+		}
+		return stamp;
+	}
+
+	/**
+	 * 追加3位毫秒数字
+	 * 
+	 * @param builder
+	 *            缓冲区
+	 * @param milli
+	 *            毫秒, [0, 1000)
+	 * @return
+	 */
+	private static StringBuilder appendMilli(StringBuilder builder, int milli) {
+		return builder.append((char) ('0' + milli / 100))
+				.append((char) ('0' + milli / 10 % 10))
+				.append((char) ('0' + milli % 10));
+	}
+
+	/**
+	 * 追加2位数字
+	 * 
+	 * @param builder
+	 *            缓冲区
+	 * @param value
+	 *            数值, [0, 100)
+	 * @param separator
+	 *            数字后的分隔符
+	 */
+	private static void appendTwoDigits(StringBuilder builder, int value,
+			char separator) {
+		builder.append((char) ('0' + value / 10))
+				.append((char) ('0' + value % 10)).append(separator);
+	}
+
+	/**
+	 * 以固定位数写入非负整数的ASCII数字, 不足位数时左补0
+	 * 
+	 * @param value
+	 *            非负整数
+	 * @param digits
+	 *            位数
+	 * @param buffer
+	 *            字节数组
+	 * @param offset
+	 *            开始写入的索引
+	 * @return 写入结束的索引
+	 */
+	private static int writeDigits(long value, int digits, byte[] buffer,
+			int offset) {
+		int end = offset + digits;
+		for (int i = end - 1; i >= offset; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return end;
+	}
+
+	/**
+	 * 字符是否为非数值
+	 * 
+	 * @param ch
+	 *            被测试的字符
+	 * @return
+	 */
+	private static boolean isSeparator(char ch) {
+		return ch < '0' || ch > '9';
+	}
+
+	/**
+	 * 以编译后的格式化器解析字符串类型日期, 与SimpleDateFormat一样允许数值字段宽度不足,
+	 * 缺失的字段取1970-01-01 00:00:00.000中对应的值. 编译后的格式化器无法按日历规则
+	 * 解析的模式串(见{@link #isCalendarPattern(String)})交由SimpleDateFormat解析
+	 * 
+	 * @param date
+	 *            日期字符串
+	 * @param pattern
+	 *            模式串
+	 * @return 毫秒时间戳
+	 * @throws ParseException
+	 */
+	private static long parseMillis(String date, String pattern)
+			throws ParseException {
+		if (isCalendarPattern(pattern)) {
+			return getSimpleDateFormat(pattern).parse(date).getTime();
+		}
+		DateTimeFormatter formatter = getDateTimeFormatter(pattern);
+		return toEpochMillis(formatter.parse(date, new ParsePosition(0)));
+	}
+
+	/**
+	 * 模式串是否含有需要SimpleDateFormat日历规则才能与其结果一致的字段: 纪元、周、一年中的天、
+	 * 星期, 以及没有小时字段的上下午标记
+	 * 
+	 * @param pattern
+	 *            模式串
+	 * @return
+	 */
+	private static boolean isCalendarPattern(String pattern) {
+		boolean hour = false, ampm = false, quoted = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			char ch = pattern.charAt(i);
+			if (ch == '\'') {
+				quoted = !quoted;
+				continue;
+			}
+			if (quoted) {
+				continue;
+			}
+			switch (ch) {
+			case 'G':
+			case 'Y':
+			case 'w':
+			case 'W':
+			case 'D':
+			case 'F':
+			case 'E':
+			case 'u':
+				return true;
+			case 'H':
+			case 'k':
+			case 'K':
+			case 'h':
+				hour = true;
+				break;
+			case 'a':
+				ampm = true;
+				break;
+			default:
+				break;
+			}
+		}
+		return ampm && !hour;
+	}
+
+	/**
+	 * 批量解析, 失败的位置在全部解析完成后统一记录
+	 * 
+	 * @param lines
+	 *            字符串数组
+	 * @param splitter
+	 *            列分割器, 为null时解析整行
+	 * @param column
+	 *            列索引
+	 * @param pattern
+	 *            模式串
+	 * @param errors
+	 *            记录解析失败的索引, 可以为null
+	 * @return
+	 */
+	private static long[] parseAll(String[] lines, Splitter splitter,
+			int column, String pattern, BitSet errors) {
+		DateTimeFormatter formatter = pattern == null
+				|| isCalendarPattern(pattern) ? null
+				: getDateTimeFormatter(pattern);
+		long[] result = new long[lines.length];
+		new ParseTask(lines, splitter, column, pattern, formatter, result, 0,
+				lines.length).invoke();
+		if (errors != null) {
+			for (int i = 0; i < result.length; i++) {
+				if (result[i] == INVALID) {
+					errors.set(i);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 以格式化器解析字符序列, 不抛出异常
+	 * 
+	 * @param formatter
+	 *            格式化器, 为null时以calendar解析
+	 * @param calendar
+	 *            SimpleDateFormat, 与formatter均为null时按
+	 *            {@link #parseLenient(CharSequence, int, int)}解析
+	 * @param text
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @return 若解析失败, 则返回{@link #INVALID}
+	 */
+	private static long parseQuietly(DateTimeFormatter formatter,
+			SimpleDateFormat calendar, CharSequence text, int begin, int end) {
+		if (formatter == null) {
+			if (calendar == null) {
+				return parseLenient(text, begin, end);
+			}
+			Date date = calendar.parse(text.subSequence(begin, end).toString(),
+					new ParsePosition(0));
+			return date == null ? INVALID : date.getTime();
+		}
+		try {
+			return toEpochMillis(formatter.parse(text.subSequence(begin, end),
+					new ParsePosition(0)));
+		} catch (DateTimeException e) {
+			return INVALID;
+		}
+	}
+
+	/**
+	 * 解析结果转换为毫秒时间戳. 未解析出偏移时, 以解析出的时区或本地时区按
+	 * {@link #localToUtc(TimeZone, long)}换算
+	 * 
+	 * @param parsed
+	 *            解析结果
+	 * @return
+	 */
+	static long toEpochMillis(TemporalAccessor parsed) {
+		LocalDate date = parsed.query(TemporalQueries.localDate());
+		if (date == null && parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+			return Instant.from(parsed).toEpochMilli();
+		}
+		if (date == null) {
+			date = LocalDate.of(EPOCH_YEAR, 1, 1)
+					.withYear((int) get(parsed, ChronoField.YEAR, EPOCH_YEAR))
+					.plusMonths(get(parsed, ChronoField.MONTH_OF_YEAR, 1) - 1)
+					.plusDays(get(parsed, ChronoField.DAY_OF_MONTH, 1) - 1);
+		}
+		LocalTime time = parsed.query(TemporalQueries.localTime());
+		if (time == null) {
+			time = LocalTime.ofNanoOfDay(get(parsed, ChronoField.HOUR_OF_DAY, 0)
+					* 3600000000000L
+					+ get(parsed, ChronoField.MINUTE_OF_HOUR, 0) * 60000000000L
+					+ get(parsed, ChronoField.SECOND_OF_MINUTE, 0) * 1000000000L
+					+ get(parsed, ChronoField.NANO_OF_SECOND, 0));
+		}
+		long local = date.toEpochDay() * MILLIS_PER_DAY + time.toNanoOfDay()
+				/ 1000000L;
+		ZoneOffset offset = parsed.query(TemporalQueries.offset());
+		if (offset != null) {
+			return local - offset.getTotalSeconds() * 1000L;
+		}
+		ZoneId zone = parsed.query(TemporalQueries.zone());
+		return localToUtc(zone == null || zone.equals(LOCAL_ZONE_ID) ? LOCAL_ZONE
+				: TimeZone.getTimeZone(zone), local);
+	}
+
+	/**
+	 * 获取解析结果中的字段值
+	 * 
+	 * @param parsed
+	 *            解析结果
+	 * @param field
+	 *            字段
+	 * @param defaultValue
+	 *            字段不存在时的默认值
+	 * @return
+	 */
+	private static long get(TemporalAccessor parsed, TemporalField field,
+			long defaultValue) {
+		return parsed.isSupported(field) ? parsed.getLong(field) : defaultValue;
+	}
+
+	/**
+	 * 将SimpleDateFormat语法的模式串编译为DateTimeFormatter. 数值字段宽度宽松解析,
+	 * 毫秒字段按毫秒数而非小数解析, 与SimpleDateFormat的行为保持一致
+	 * 
+	 * @param pattern
+	 *            模式串
+	 * @return
+	 */
+	private static DateTimeFormatter compile(String pattern) {
+		Locale locale = Locale.getDefault();
+		WeekFields weekFields = WeekFields.of(locale);
+		DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder()
+				.parseLenient();
+		boolean halfDayHour = false, ampm = false;
+		int length = pattern.length();
+		for (int i = 0; i < length;) {
+			char ch = pattern.charAt(i);
+			if (ch == '\'') {
+				i = appendQuoted(builder, pattern, i);
+				continue;
+			}
+			if (!(ch >= 'a' && ch <= 'z') && !(ch >= 'A' && ch <= 'Z')) {
+				builder.appendLiteral(ch);
+				i++;
+				continue;
+			}
+			int count = 1;
+			while (i + count < length && pattern.charAt(i + count) == ch) {
+				count++;
+			}
+			i += count;
+			switch (ch) {
+			case 'G':
+				builder.appendText(ChronoField.ERA, textStyle(count));
+				break;
+			case 'y':
+				appendYear(builder, ChronoField.YEAR_OF_ERA, count);
+				break;
+			case 'Y':
+				appendYear(builder, weekFields.weekBasedYear(), count);
+				break;
+			case 'M':
+			case 'L':
+				if (count >= 3) {
+					builder.appendText(ChronoField.MONTH_OF_YEAR,
+							textStyle(count));
+				} else {
+					appendNumber(builder, ChronoField.MONTH_OF_YEAR, count);
+				}
+				break;
+			case 'w':
+				appendNumber(builder, weekFields.weekOfWeekBasedYear(), count);
+				break;
+			case 'W':
+				appendNumber(builder, weekFields.weekOfMonth(), count);
+				break;
+			case 'D':
+				appendNumber(builder, ChronoField.DAY_OF_YEAR, count);
+				break;
+			case 'd':
+				appendNumber(builder, ChronoField.DAY_OF_MONTH, count);
+				break;
+			case 'F':
+				appendNumber(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count);
+				break;
+			case 'E':
+				builder.appendText(ChronoField.DAY_OF_WEEK, textStyle(count));
+				break;
+			case 'u':
+				appendNumber(builder, ChronoField.DAY_OF_WEEK, count);
+				break;
+			case 'a':
+				builder.appendText(ChronoField.AMPM_OF_DAY, TextStyle.SHORT);
+				ampm = true;
+				break;
+			case 'H':
+				appendNumber(builder, ChronoField.HOUR_OF_DAY, count);
+				break;
+			case 'k':
+				appendNumber(builder, ChronoField.CLOCK_HOUR_OF_DAY, count);
+				break;
+			case 'K':
+				appendNumber(builder, ChronoField.HOUR_OF_AMPM, count);
+				halfDayHour = true;
+				break;
+			case 'h':
+				appendNumber(builder, ChronoField.CLOCK_HOUR_OF_AMPM, count);
+				halfDayHour = true;
+				break;
+			case 'm':
+				appendNumber(builder, ChronoField.MINUTE_OF_HOUR, count);
+				break;
+			case 's':
+				appendNumber(builder, ChronoField.SECOND_OF_MINUTE, count);
+				break;
+			case 'S':
+				appendNumber(builder, ChronoField.MILLI_OF_SECOND, count);
+				break;
+			case 'z':
+				builder.appendZoneText(textStyle(count));
+				break;
+			case 'Z':
+				builder.appendOffset("+HHMM", "+0000");
+				break;
+			case 'X':
+				builder.appendOffset(count == 1 ? "+HH" : count == 2 ? "+HHMM"
+						: "+HH:MM", "Z");
+				break;
+			default:
+				throw new IllegalArgumentException("Illegal pattern character '"
+						+ ch + "'");
+			}
+		}
+		if (halfDayHour && !ampm) {
+			// 与SimpleDateFormat一致, 没有上下午标记时按上午解析
+			builder.parseDefaulting(ChronoField.AMPM_OF_DAY, 0);
+		}
+		return builder.toFormatter(locale)
+				.withResolverStyle(ResolverStyle.LENIENT)
+				.withZone(LOCAL_ZONE_ID);
+	}
+
+	/**
+	 * 追加引号括起的文本
+	 * 
+	 * @param builder
+	 *            DateTimeFormatterBuilder
+	 * @param pattern
+	 *            模式串
+	 * @param i
+	 *            左引号的索引
+	 * @return 右引号之后的索引
+	 */
+	private static int appendQuoted(DateTimeFormatterBuilder builder,
+			String pattern, int i) {
+		int length = pattern.length();
+		if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+			builder.appendLiteral('\'');
+			return i + 2;
+		}
+		StringBuilder literal = new StringBuilder();
+		for (i++; i < length; i++) {
+			char ch = pattern.charAt(i);
+			if (ch == '\'') {
+				if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+					literal.append(ch);
+					i++;
+					continue;
+				}
+				builder.appendLiteral(literal.toString());
+				return i + 1;
+			}
+			literal.append(ch);
+		}
+		throw new IllegalArgumentException("Unterminated quote");
+	}
+
+	/**
+	 * 追加年份字段, 两位年份以当前年份前80年为基准
+	 * 
+	 * @param builder
+	 *            DateTimeFormatterBuilder
+	 * @param field
+	 *            字段
+	 * @param count
+	 *            模式字母个数
+	 */
+	private static void appendYear(DateTimeFormatterBuilder builder,
+			TemporalField field, int count) {
+		if (count == 2) {
+			builder.appendValueReduced(field, 2, 2, LocalDate.now().getYear()
+					- TWO_DIGIT_YEAR_SPAN);
+		} else {
+			builder.appendValue(field, count, 19, SignStyle.NORMAL);
+		}
+	}
+
+	/**
+	 * 追加数值字段
+	 * 
+	 * @param builder
+	 *            DateTimeFormatterBuilder
+	 * @param field
+	 *            字段
+	 * @param count
+	 *            模式字母个数, 即最小输出宽度
+	 */
+	private static void appendNumber(DateTimeFormatterBuilder builder,
+			TemporalField field, int count) {
+		if (count == 1) {
+			builder.appendValue(field);
+		} else {
+			builder.appendValue(field, count);
+		}
+	}
+
+	/**
+	 * 文本字段的样式
+	 * 
+	 * @param count
+	 *            模式字母个数
+	 * @return
+	 */
+	private static TextStyle textStyle(int count) {
+		return count >= 4 ? TextStyle.FULL : TextStyle.SHORT;
+	}
+
+	/**
+	 * 按天缓存的日期部分yyyy/MM/dd, 不可变
+	 */
+	private static final class Day {
+
+		private final long epochDay;
+		private final String text;
+
+		private Day(long epochDay) {
+			this.epochDay = epochDay;
+			this.text = getDateTimeFormatter(DAY_TEMPLATE).format(
+					LocalDate.ofEpochDay(epochDay));
+		}
+
+	}
+
+	/**
+	 * 按秒缓存的格式化前缀yyyy/MM/dd HH:mm:ss:, 不可变, 经由volatile字段在线程间发布
+	 */
+	private static final class Stamp {
+
+		private final long second;
+		private final Day day;
+		private final boolean midnight;
+		private final String text;
+		private final char[] chars;
+		private final byte[] bytes;
+
+		/**
+		 * @param second
+		 *            距1970-01-01的秒数
+		 * @param offset
+		 *            该秒所在时区的偏移毫秒数
+		 * @param previous
+		 *            上一次使用的日期部分, 同一天时复用
+		 */
+		private Stamp(long second, int offset, Day previous) {
+			this.second = second;
+			if (second == Long.MIN_VALUE) {
+				this.day = null;
+				this.midnight = false;
+				this.text = null;
+				this.chars = null;
+				this.bytes = null;
+				return;
+			}
+			long local = second + offset / 1000;
+			long epochDay = Math.floorDiv(local, 86400L);
+			int secondOfDay = (int) Math.floorMod(local, 86400L);
+			this.day = previous != null && previous.epochDay == epochDay ? previous
+					: new Day(epochDay);
+			this.midnight = secondOfDay == 0;
+			StringBuilder builder = new StringBuilder(day.text.length() + 13);
+			builder.append(day.text).append(' ');
+			appendTwoDigits(builder, secondOfDay / 3600, ':');
+			appendTwoDigits(builder, secondOfDay / 60 % 60, ':');
+			appendTwoDigits(builder, secondOfDay % 60, ':');
+			this.chars = new char[builder.length()];
+			builder.getChars(0, chars.length, chars, 0);
+			this.bytes = new byte[chars.length];
+			for (int i = 0; i < chars.length; i++) {
+				bytes[i] = (byte) chars[i];
+			}
+			this.text = new String(chars, 0, chars.length - 1);
+		}
+
+	}
+
+	/**
+	 * 批量解析任务, 按区间二分后并行执行, 各任务只写入结果数组中互不重叠的区间
+	 */
+	private static final class ParseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private static final int THRESHOLD = 8192;
+
+		private final String[] lines;
+		private final Splitter splitter;
+		private final int column;
+		private final String pattern;
+		private final DateTimeFormatter formatter;
+		private final long[] result;
+		private final int from;
+		private final int to;
+
+		private ParseTask(String[] lines, Splitter splitter, int column,
+				String pattern, DateTimeFormatter formatter, long[] result,
+				int from, int to) {
+			this.lines = lines;
+			this.splitter = splitter;
+			this.column = column;
+			this.pattern = pattern;
+			this.formatter = formatter;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ParseTask(lines, splitter, column, pattern,
+						formatter, result, from, middle), new ParseTask(lines,
+						splitter, column, pattern, formatter, result, middle, to));
+				return;
+			}
+			// 叶子任务在本线程内顺序执行, 可以独占线程内的SimpleDateFormat
+			SimpleDateFormat calendar = formatter == null && pattern != null
+					? getSimpleDateFormat(pattern) : null;
+			Splitter.Cursor cursor = splitter == null ? null : splitter
+					.cursor("");
+			for (int i = from; i < to; i++) {
+				String line = lines[i];
+				if (line == null) {
+					result[i] = INVALID;
+				} else if (cursor == null) {
+					result[i] = parseQuietly(formatter, calendar, line, 0,
+							line.length());
+				} else {
+					cursor.reset(line);
+					boolean found = true;
+					for (int j = 0; j <= column && found; j++) {
+						found = cursor.next();
+					}
+					result[i] = found ? parseQuietly(formatter, calendar,
+							line, cursor.begin(), cursor.end()) : INVALID;
+				}
+			}
+		}
+
+	}
+
 }
\ No newline at end of file
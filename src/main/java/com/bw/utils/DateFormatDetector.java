@@ -0,0 +1,642 @@
+package com.bw.utils;
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 自动识别日期格式的解析器
+ * <p>
+ * 从样本中推断日期格式并锁定, 之后的解析直接使用锁定的格式; 只有当某个值不符合锁定的格式时,
+ * 才对该值重新识别并锁定新格式, 因此同一来源的数据始终走单一格式的快速路径.
+ * 日与月的先后顺序一经样本或无歧义的值确定便不再改变: 重新识别时不会锁定相反的顺序,
+ * 只能按相反顺序解析的值照常解析, 但不改变锁定的格式.
+ * 可识别毫秒/秒时间戳、带时区偏移的ISO-8601、yyyy/MM/dd系列、dd/MM/yyyy与MM/dd/yyyy系列(分隔符任意)、
+ * RFC 1123以及英文月份名称的常见写法. 实例是线程安全的.
+ *
+ * <pre>
+ * DateFormatDetector detector = new DateFormatDetector();
+ * detector.learn(Arrays.asList(lines).subList(0, 100));
+ * for (String line : lines) {
+ * 	long millis = detector.parseMillis(line);
+ * }
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public final class DateFormatDetector {
+
+	/**
+	 * 默认的样本数
+	 */
+	public static final int DEFAULT_SAMPLE_SIZE = 100;
+
+	private final Format[] candidates;
+	private volatile Format learned;
+	private volatile Format order;
+
+	/**
+	 * 以全部格式创建识别器. dd/MM/yyyy优先于MM/dd/yyyy, 两者均可时按日在前解析
+	 */
+	public DateFormatDetector() {
+		this(Format.values());
+	}
+
+	/**
+	 * 以指定的候选格式创建识别器, 候选格式的顺序即识别时的优先级
+	 *
+	 * @param candidates
+	 *            候选格式
+	 */
+	public DateFormatDetector(Format... candidates) {
+		if (candidates.length == 0) {
+			throw new IllegalArgumentException("candidates must not be empty");
+		}
+		this.candidates = Arrays.copyOf(candidates, candidates.length);
+	}
+
+	/**
+	 * 从样本的前{@link #DEFAULT_SAMPLE_SIZE}个值中推断格式并锁定
+	 *
+	 * @param samples
+	 *            样本
+	 * @return 能解析最多样本的格式, 若没有任何格式能解析样本, 则返回null
+	 */
+	public Format learn(Iterable<? extends CharSequence> samples) {
+		return learn(samples, DEFAULT_SAMPLE_SIZE);
+	}
+
+	/**
+	 * 从样本的前若干个值中推断格式并锁定
+	 *
+	 * @param samples
+	 *            样本
+	 * @param limit
+	 *            最多使用的样本数
+	 * @return 能解析最多样本的格式, 若没有任何格式能解析样本, 则返回null
+	 */
+	public Format learn(Iterable<? extends CharSequence> samples, int limit) {
+		int[] hits = new int[candidates.length];
+		int count = 0;
+		for (CharSequence sample : samples) {
+			if (count++ == limit) {
+				break;
+			}
+			if (sample == null) {
+				continue;
+			}
+			for (int i = 0; i < candidates.length; i++) {
+				if (candidates[i].parse(sample, 0, sample.length()) != DateCaseUtil.INVALID) {
+					hits[i]++;
+				}
+			}
+		}
+		int best = 0;
+		int dayFirst = 0, monthFirst = 0;
+		for (int i = 0; i < candidates.length; i++) {
+			if (hits[i] > hits[best]) {
+				best = i;
+			}
+			if (candidates[i] == Format.DAY_MONTH_YEAR) {
+				dayFirst = hits[i];
+			} else if (candidates[i] == Format.MONTH_DAY_YEAR) {
+				monthFirst = hits[i];
+			}
+		}
+		Format format = hits[best] == 0 ? null : candidates[best];
+		order = dayFirst == monthFirst ? null
+				: dayFirst > monthFirst ? Format.DAY_MONTH_YEAR
+						: Format.MONTH_DAY_YEAR;
+		learned = format;
+		return format;
+	}
+
+	/**
+	 * 识别单个值的格式, 不改变锁定的格式
+	 *
+	 * @param date
+	 *            日期字符串
+	 * @return 第一个能解析该值的候选格式, 若均不能解析, 则返回null
+	 */
+	public Format detect(CharSequence date) {
+		for (Format format : candidates) {
+			if (format.parse(date, 0, date.length()) != DateCaseUtil.INVALID) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 当前锁定的格式
+	 *
+	 * @return 若尚未识别, 则返回null
+	 */
+	public Format getFormat() {
+		return learned;
+	}
+
+	/**
+	 * 清除锁定的格式与日月顺序
+	 */
+	public void reset() {
+		learned = null;
+		order = null;
+	}
+
+	/**
+	 * 解析日期字符串
+	 *
+	 * @param date
+	 *            日期字符串
+	 * @return
+	 * @throws Exception
+	 */
+	public Date parse(String date) throws Exception {
+		long millis = parseQuietly(date, 0, date.length());
+		if (millis == DateCaseUtil.INVALID) {
+			throw new Exception("Unparseable date: \"" + date + "\"");
+		}
+		return new Date(millis);
+	}
+
+	/**
+	 * 解析日期字符串, 得到毫秒时间戳
+	 *
+	 * @param date
+	 *            日期字符串
+	 * @return
+	 */
+	public long parseMillis(CharSequence date) {
+		return parseMillis(date, 0, date.length());
+	}
+
+	/**
+	 * 解析字符序列区间内的日期, 得到毫秒时间戳
+	 *
+	 * @param date
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @return
+	 */
+	public long parseMillis(CharSequence date, int begin, int end) {
+		long millis = parseQuietly(date, begin, end);
+		if (millis == DateCaseUtil.INVALID) {
+			throw new IllegalArgumentException("Unparseable date: \""
+					+ date.subSequence(begin, end) + "\"");
+		}
+		return millis;
+	}
+
+	/**
+	 * 批量解析日期字符串, 未锁定格式时先以前{@link #DEFAULT_SAMPLE_SIZE}个值推断格式
+	 *
+	 * @param dates
+	 *            日期字符串列表
+	 * @param errors
+	 *            记录解析失败的索引, 可以为null
+	 * @return 与参数一一对应的毫秒时间戳, 解析失败的位置为{@link Long#MIN_VALUE}
+	 */
+	public long[] parseAll(List<String> dates, BitSet errors) {
+		if (learned == null) {
+			learn(dates);
+		}
+		long[] result = new long[dates.size()];
+		int index = 0;
+		for (String date : dates) {
+			long millis = date == null ? DateCaseUtil.INVALID : parseQuietly(
+					date, 0, date.length());
+			if (millis == DateCaseUtil.INVALID && errors != null) {
+				errors.set(index);
+			}
+			result[index++] = millis;
+		}
+		return result;
+	}
+
+	/**
+	 * 先以锁定的格式解析, 不符合时重新识别并锁定新格式. 日月顺序已确定时跳过相反的顺序,
+	 * 仅当其余候选格式都不能解析时才按相反的顺序解析该值, 且不锁定
+	 *
+	 * @param date
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @return 若解析失败, 则返回{@link DateCaseUtil#INVALID}
+	 */
+	private long parseQuietly(CharSequence date, int begin, int end) {
+		Format format = learned;
+		if (format != null) {
+			long millis = format.parse(date, begin, end);
+			if (millis != DateCaseUtil.INVALID) {
+				return millis;
+			}
+		}
+		Format order = this.order;
+		Format reversed = null;
+		for (Format candidate : candidates) {
+			if (candidate == format) {
+				continue;
+			}
+			if (order != null && candidate.isNumericOrder()
+					&& candidate != order) {
+				reversed = candidate;
+				continue;
+			}
+			long millis = candidate.parse(date, begin, end);
+			if (millis != DateCaseUtil.INVALID) {
+				if (order == null && candidate.isNumericOrder()
+						&& candidate.reverse().parse(date, begin, end) == DateCaseUtil.INVALID) {
+					// 只能按一种顺序解析的值确定日月顺序
+					this.order = candidate;
+				}
+				learned = candidate;
+				return millis;
+			}
+		}
+		return reversed == null ? DateCaseUtil.INVALID : reversed.parse(date,
+				begin, end);
+	}
+
+	/**
+	 * 可识别的日期格式
+	 */
+	public enum Format {
+
+		/**
+		 * 13位的毫秒时间戳
+		 */
+		EPOCH_MILLIS {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				if (end - begin != 13) {
+					return DateCaseUtil.INVALID;
+				}
+				return parseDigits(date, begin, end);
+			}
+		},
+
+		/**
+		 * 10位的秒时间戳, 可带小数部分
+		 */
+		EPOCH_SECONDS {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				int point = begin;
+				while (point < end && date.charAt(point) != '.') {
+					point++;
+				}
+				if (point - begin != 10 || point == end - 1) {
+					return DateCaseUtil.INVALID;
+				}
+				long seconds = parseDigits(date, begin, point);
+				if (seconds == DateCaseUtil.INVALID) {
+					return DateCaseUtil.INVALID;
+				}
+				int milli = 0;
+				for (int i = point + 1, scale = 100; i < end; i++, scale /= 10) {
+					int digit = date.charAt(i) - '0';
+					if (digit < 0 || digit > 9) {
+						return DateCaseUtil.INVALID;
+					}
+					milli += digit * scale;
+				}
+				return seconds * 1000 + milli;
+			}
+		},
+
+		/**
+		 * 带时区偏移的ISO-8601, 如2019-12-06T10:00:00Z、2019-12-06T10:00:00.123+08:00
+		 */
+		ISO_OFFSET {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				int zone = zoneStart(date, begin, end);
+				if (zone == NOT_FOUND) {
+					return DateCaseUtil.INVALID;
+				}
+				int offset = parseOffset(date, zone, end);
+				if (offset == INVALID_OFFSET) {
+					return DateCaseUtil.INVALID;
+				}
+				// 小数秒不是3位时按小数而非毫秒数解析, 交给标准格式化器
+				if (isMilliFraction(date, begin, zone)) {
+					long local = DateCaseUtil.parseLocal(date, begin, zone,
+							DateCaseUtil.YEAR_MONTH_DAY);
+					if (local != DateCaseUtil.INVALID) {
+						return local - offset;
+					}
+				}
+				return parseText(DateTimeFormatter.ISO_OFFSET_DATE_TIME, date,
+						begin, end);
+			}
+		},
+
+		/**
+		 * dd/MM/yyyy HH:mm:ss:SSS系列, 分隔符任意. 年份须为4位, 以免06/12/19被解析为公元19年
+		 */
+		DAY_MONTH_YEAR {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				if (!hasFullYear(date, begin, end)) {
+					return DateCaseUtil.INVALID;
+				}
+				return toUtc(DateCaseUtil.parseLocal(date, begin, end,
+						DateCaseUtil.DAY_MONTH_YEAR));
+			}
+		},
+
+		/**
+		 * MM/dd/yyyy HH:mm:ss:SSS系列, 分隔符任意. 年份须为4位
+		 */
+		MONTH_DAY_YEAR {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				if (!hasFullYear(date, begin, end)) {
+					return DateCaseUtil.INVALID;
+				}
+				return toUtc(DateCaseUtil.parseLocal(date, begin, end,
+						DateCaseUtil.MONTH_DAY_YEAR));
+			}
+		},
+
+		/**
+		 * yyyy/MM/dd HH:mm:ss:SSS系列, 分隔符任意, 包括不带时区的ISO-8601. 年份须为4位,
+		 * 以免将dd/MM/yyyy误解析为年份很小的日期
+		 */
+		YEAR_MONTH_DAY {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				while (begin < end && date.charAt(begin) <= ' ') {
+					begin++;
+				}
+				if (end - begin < YEAR_LENGTH
+						|| parseDigits(date, begin, begin + YEAR_LENGTH) == DateCaseUtil.INVALID) {
+					return DateCaseUtil.INVALID;
+				}
+				return DateCaseUtil.parseLenient(date, begin, end);
+			}
+		},
+
+		/**
+		 * RFC 1123, 如Fri, 6 Dec 2019 10:00:00 GMT
+		 */
+		RFC_1123 {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				return parseText(DateTimeFormatter.RFC_1123_DATE_TIME, date,
+						begin, end);
+			}
+		},
+
+		/**
+		 * 英文月份名称在日之后, 如6 Dec 2019、06 December 2019 10:00:00
+		 */
+		DAY_MONTH_NAME_YEAR {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				return parseText(DAY_MONTH_NAME_FORMATTER, date, begin, end);
+			}
+		},
+
+		/**
+		 * 英文月份名称在日之前, 如Dec 6, 2019、December 06, 2019 10:00:00
+		 */
+		MONTH_NAME_DAY_YEAR {
+			@Override
+			long parse(CharSequence date, int begin, int end) {
+				return parseText(MONTH_NAME_DAY_FORMATTER, date, begin, end);
+			}
+		};
+
+		private static final int NOT_FOUND = -1;
+		private static final int INVALID_OFFSET = Integer.MIN_VALUE;
+		private static final int DATE_LENGTH = 10;
+		private static final int YEAR_LENGTH = 4;
+		private static final DateTimeFormatter DAY_MONTH_NAME_FORMATTER = textFormatter("d MMM yyyy[ HH:mm[:ss]]");
+		private static final DateTimeFormatter MONTH_NAME_DAY_FORMATTER = textFormatter("MMM d, yyyy[ HH:mm[:ss]]");
+
+		/**
+		 * 解析字符序列区间内的日期
+		 *
+		 * @param date
+		 *            字符序列
+		 * @param begin
+		 *            开始索引
+		 * @param end
+		 *            结束索引(不包含)
+		 * @return 若不符合该格式, 则返回{@link DateCaseUtil#INVALID}
+		 */
+		abstract long parse(CharSequence date, int begin, int end);
+
+		/**
+		 * 是否为以数字表示日与月的{@link #DAY_MONTH_YEAR}或{@link #MONTH_DAY_YEAR}
+		 *
+		 * @return
+		 */
+		boolean isNumericOrder() {
+			return this == DAY_MONTH_YEAR || this == MONTH_DAY_YEAR;
+		}
+
+		/**
+		 * 日月顺序相反的格式
+		 *
+		 * @return 若不是{@link #isNumericOrder()}的格式, 则返回null
+		 */
+		Format reverse() {
+			return this == DAY_MONTH_YEAR ? MONTH_DAY_YEAR
+					: this == MONTH_DAY_YEAR ? DAY_MONTH_YEAR : null;
+		}
+
+		/**
+		 * 解析纯数字
+		 *
+		 * @return 若含有非数字字符, 则返回{@link DateCaseUtil#INVALID}
+		 */
+		private static long parseDigits(CharSequence date, int begin, int end) {
+			long value = 0;
+			for (int i = begin; i < end; i++) {
+				int digit = date.charAt(i) - '0';
+				if (digit < 0 || digit > 9) {
+					return DateCaseUtil.INVALID;
+				}
+				value = value * 10 + digit;
+			}
+			return value;
+		}
+
+		/**
+		 * 日、月在前的日期中年份是否为4位. 按{@link DateCaseUtil#parseLocal}的规则跳过日与月:
+		 * 每个字段至多2位数字, 其后可有单个分隔符
+		 *
+		 * @return
+		 */
+		private static boolean hasFullYear(CharSequence date, int begin,
+				int end) {
+			int i = begin;
+			while (i < end && date.charAt(i) <= ' ') {
+				i++;
+			}
+			for (int field = 0; field < 2; field++) {
+				for (int digits = 0; digits < 2 && i < end
+						&& isDigit(date.charAt(i)); digits++) {
+					i++;
+				}
+				if (i < end && !isDigit(date.charAt(i))) {
+					i++;
+				}
+			}
+			int digits = 0;
+			while (digits < YEAR_LENGTH && i < end && isDigit(date.charAt(i))) {
+				digits++;
+				i++;
+			}
+			return digits == YEAR_LENGTH;
+		}
+
+		private static boolean isDigit(char ch) {
+			return ch >= '0' && ch <= '9';
+		}
+
+		/**
+		 * 以UTC计算的当地时间毫秒数转换为时间戳
+		 *
+		 * @param local
+		 *            当地时间毫秒数
+		 * @return
+		 */
+		private static long toUtc(long local) {
+			return local == DateCaseUtil.INVALID ? DateCaseUtil.INVALID
+					: DateCaseUtil.localToUtc(DateCaseUtil.LOCAL_ZONE, local);
+		}
+
+		/**
+		 * 查找时区偏移的开始索引, 只在日期部分之后查找
+		 *
+		 * @return 若不含时区偏移, 则返回{@link #NOT_FOUND}
+		 */
+		private static int zoneStart(CharSequence date, int begin, int end) {
+			while (end > begin && date.charAt(end - 1) <= ' ') {
+				end--;
+			}
+			if (end - begin <= DATE_LENGTH) {
+				return NOT_FOUND;
+			}
+			if (date.charAt(end - 1) == 'Z') {
+				return end - 1;
+			}
+			for (int i = end - 1; i > begin + DATE_LENGTH; i--) {
+				char ch = date.charAt(i);
+				if (ch == '+' || ch == '-') {
+					return i;
+				}
+			}
+			return NOT_FOUND;
+		}
+
+		/**
+		 * 秒的小数部分是否不存在或恰为3位
+		 *
+		 * @return
+		 */
+		private static boolean isMilliFraction(CharSequence date, int begin,
+				int zone) {
+			for (int i = begin + DATE_LENGTH; i < zone; i++) {
+				if (date.charAt(i) == '.') {
+					return zone - i - 1 == 3;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * 解析Z、+HH、+HHmm或+HH:mm形式的时区偏移
+		 *
+		 * @return 偏移毫秒数, 若格式错误, 则返回{@link #INVALID_OFFSET}
+		 */
+		private static int parseOffset(CharSequence date, int begin, int end) {
+			while (end > begin && date.charAt(end - 1) <= ' ') {
+				end--;
+			}
+			char sign = date.charAt(begin);
+			if (sign == 'Z') {
+				return end - begin == 1 ? 0 : INVALID_OFFSET;
+			}
+			int hours = 0, minutes = 0, digits = 0;
+			for (int i = begin + 1; i < end; i++) {
+				char ch = date.charAt(i);
+				if (ch == ':' && digits == 2) {
+					continue;
+				}
+				int digit = ch - '0';
+				if (digit < 0 || digit > 9 || digits == 4) {
+					return INVALID_OFFSET;
+				}
+				if (digits++ < 2) {
+					hours = hours * 10 + digit;
+				} else {
+					minutes = minutes * 10 + digit;
+				}
+			}
+			if ((digits != 2 && digits != 4) || hours > 18 || minutes > 59) {
+				return INVALID_OFFSET;
+			}
+			int offset = (hours * 60 + minutes) * 60000;
+			return sign == '-' ? -offset : offset;
+		}
+
+		/**
+		 * 以格式化器解析, 不抛出异常. 空白字符串, 以及未能解析出完整日期的结果均视为失败
+		 *
+		 * @return 若解析失败, 则返回{@link DateCaseUtil#INVALID}
+		 */
+		private static long parseText(DateTimeFormatter formatter,
+				CharSequence date, int begin, int end) {
+			String text = date.subSequence(begin, end).toString().trim();
+			if (text.isEmpty()) {
+				return DateCaseUtil.INVALID;
+			}
+			try {
+				TemporalAccessor parsed = formatter.parse(text);
+				if (parsed.query(TemporalQueries.localDate()) == null) {
+					return DateCaseUtil.INVALID;
+				}
+				return DateCaseUtil.toEpochMillis(parsed);
+			} catch (DateTimeException e) {
+				return DateCaseUtil.INVALID;
+			}
+		}
+
+		/**
+		 * 创建英文月份名称的格式化器, 月份名称不区分大小写, 可为缩写或全称.
+		 * 两种写法均为可选, 因此{@link #parseText}还要求解析出完整的日期
+		 *
+		 * @param pattern
+		 *            DateTimeFormatter语法的模式串
+		 * @return
+		 */
+		private static DateTimeFormatter textFormatter(String pattern) {
+			String full = pattern.replace("MMM", "MMMM");
+			return new DateTimeFormatterBuilder()
+					.parseCaseInsensitive()
+					.appendOptional(
+							DateTimeFormatter.ofPattern(full, Locale.ENGLISH))
+					.appendOptional(
+							DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH))
+					.toFormatter(Locale.ENGLISH);
+		}
+
+	}
+
+}
@@ -3,7 +3,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.StringTokenizer;
 
 /** 类说明:此工具类用于操作文件及文件夹的相关操作  复制 删除等处理
  * 功能:	
@@ -30,6 +29,7 @@ import java.util.StringTokenizer;
 
 //FileRelatedOperation
 public class FileRelatedOperation {
+	private static final Splitter PATH_SPLITTER = Splitter.on('/').omitEmptyStrings();
 	private File sDir, dDir, newDir;
 
 	public FileRelatedOperation(String s, String d) {
@@ -140,14 +140,16 @@ public class FileRelatedOperation {
 	 */
 	public void createMultilevelDir(String path) {
 		try {
-			StringTokenizer st = new StringTokenizer(path, "/");
-			String path1 = st.nextToken() + "/";
-			String path2 = path1;
-			while (st.hasMoreTokens()) {
+			Splitter.Cursor st = PATH_SPLITTER.cursor(path);
+			if (!st.next()) {
+				throw new IllegalArgumentException(path);
+			}
+			StringBuilder path2 = new StringBuilder(path.length() + 1);
+			path2.append(path, st.begin(), st.end()).append('/');
+			while (st.next()) {
 
-				path1 = st.nextToken() + "/";
-				path2 += path1;
-				File inbox = new File(path2);
+				path2.append(path, st.begin(), st.end()).append('/');
+				File inbox = new File(path2.toString());
 				if (!inbox.exists())
 					inbox.mkdir();
 
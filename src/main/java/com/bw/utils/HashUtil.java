@@ -0,0 +1,556 @@
+package com.bw.utils;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * 非加密哈希工具类, 采用xxHash64算法
+ * <p>
+ * 输出与xxHash64参考实现一致, 相同输入与种子在任何平台、任何版本下得到相同的值, 可用于分片、
+ * 去重等需要持久化哈希值的场景. CharSequence按UTF-16LE编码的字节参与哈希, 不需要先编码或
+ * 创建String.
+ *
+ * @author Lychie Fan
+ */
+public class HashUtil {
+
+	/** 默认种子 */
+	public static final long DEFAULT_SEED = 0L;
+
+	private static final long P1 = 0x9E3779B185EBCA87L;
+	private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long P3 = 0x165667B19E3779F9L;
+	private static final long P4 = 0x85EBCA77C2B2AE63L;
+	private static final long P5 = 0x27D4EB2F165667C5L;
+	private static final int EOF = -1;
+	private static final int STRIPE = 32;
+	private static final int BUFFER_SIZE = 1024 * 64;
+	private static final long MAPPED_REGION = 1024 * 1024 * 64;
+
+	/**
+	 * 计算字节数组的哈希值
+	 *
+	 * @param bytes
+	 *            字节数组
+	 * @return
+	 */
+	public static long hash64(byte[] bytes) {
+		return hash64(bytes, 0, bytes.length, DEFAULT_SEED);
+	}
+
+	/**
+	 * 计算字节数组区间的哈希值
+	 *
+	 * @param bytes
+	 *            字节数组
+	 * @param offset
+	 *            开始索引
+	 * @param length
+	 *            长度
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static long hash64(byte[] bytes, int offset, int length, long seed) {
+		// 堆缓冲区的getLong以非对齐的整字读取实现, 比逐字节拼装快得多
+		ByteBuffer le = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		int end = offset + length;
+		int i = offset;
+		long h;
+		if (length >= STRIPE) {
+			long v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+			for (int limit = end - STRIPE; i <= limit; i += STRIPE) {
+				v1 = round(v1, le.getLong(i));
+				v2 = round(v2, le.getLong(i + 8));
+				v3 = round(v3, le.getLong(i + 16));
+				v4 = round(v4, le.getLong(i + 24));
+			}
+			h = converge(v1, v2, v3, v4);
+		} else {
+			h = seed + P5;
+		}
+		h += length;
+		for (; i + 8 <= end; i += 8) {
+			h = mixLong(h, le.getLong(i));
+		}
+		if (i + 4 <= end) {
+			h = mixInt(h, le.getInt(i) & 0xFFFFFFFFL);
+			i += 4;
+		}
+		for (; i < end; i++) {
+			h = mixByte(h, bytes[i]);
+		}
+		return avalanche(h);
+	}
+
+	/**
+	 * 计算字符序列的哈希值, 等价于其UTF-16LE编码字节的哈希值
+	 *
+	 * @param str
+	 *            字符序列
+	 * @return
+	 */
+	public static long hash64(CharSequence str) {
+		return hash64(str, DEFAULT_SEED);
+	}
+
+	/**
+	 * 计算字符序列的哈希值, 等价于其UTF-16LE编码字节的哈希值
+	 *
+	 * @param str
+	 *            字符序列
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static long hash64(CharSequence str, long seed) {
+		int chars = str.length();
+		int i = 0;
+		long h;
+		if (chars >= STRIPE / 2) {
+			long v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+			for (int limit = chars - STRIPE / 2; i <= limit; i += STRIPE / 2) {
+				v1 = round(v1, getLong(str, i));
+				v2 = round(v2, getLong(str, i + 4));
+				v3 = round(v3, getLong(str, i + 8));
+				v4 = round(v4, getLong(str, i + 12));
+			}
+			h = converge(v1, v2, v3, v4);
+		} else {
+			h = seed + P5;
+		}
+		h += (long) chars * 2;
+		for (; i + 4 <= chars; i += 4) {
+			h = mixLong(h, getLong(str, i));
+		}
+		if (i + 2 <= chars) {
+			h = mixInt(h, str.charAt(i) | (long) str.charAt(i + 1) << 16);
+			i += 2;
+		}
+		if (i < chars) {
+			char ch = str.charAt(i);
+			h = mixByte(h, (byte) ch);
+			h = mixByte(h, (byte) (ch >>> 8));
+		}
+		return avalanche(h);
+	}
+
+	/**
+	 * 计算缓冲区position到limit之间内容的哈希值, 不改变缓冲区的position.
+	 * 适用于堆缓冲区、直接缓冲区以及内存映射的文件片段
+	 *
+	 * @param buffer
+	 *            缓冲区
+	 * @return
+	 */
+	public static long hash64(ByteBuffer buffer) {
+		return hash64(buffer, DEFAULT_SEED);
+	}
+
+	/**
+	 * 计算缓冲区position到limit之间内容的哈希值, 不改变缓冲区的position
+	 *
+	 * @param buffer
+	 *            缓冲区
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static long hash64(ByteBuffer buffer, long seed) {
+		if (buffer.hasArray()) {
+			return hash64(buffer.array(),
+					buffer.arrayOffset() + buffer.position(),
+					buffer.remaining(), seed);
+		}
+		ByteBuffer le = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		int end = le.limit();
+		int i = le.position();
+		int length = end - i;
+		long h;
+		if (length >= STRIPE) {
+			long v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+			for (int limit = end - STRIPE; i <= limit; i += STRIPE) {
+				v1 = round(v1, le.getLong(i));
+				v2 = round(v2, le.getLong(i + 8));
+				v3 = round(v3, le.getLong(i + 16));
+				v4 = round(v4, le.getLong(i + 24));
+			}
+			h = converge(v1, v2, v3, v4);
+		} else {
+			h = seed + P5;
+		}
+		h += length;
+		for (; i + 8 <= end; i += 8) {
+			h = mixLong(h, le.getLong(i));
+		}
+		if (i + 4 <= end) {
+			h = mixInt(h, le.getInt(i) & 0xFFFFFFFFL);
+			i += 4;
+		}
+		for (; i < end; i++) {
+			h = mixByte(h, le.get(i));
+		}
+		return avalanche(h);
+	}
+
+	/**
+	 * 以流式读取计算文件内容的哈希值
+	 *
+	 * @param file
+	 *            文件
+	 * @return
+	 * @throws Exception
+	 */
+	public static long hash(File file) throws Exception {
+		try {
+			return hash(new FileInputStream(file));
+		} catch (Throwable e) {
+			throw new Exception(e);
+		}
+	}
+
+	/**
+	 * 以流式读取计算输入流内容的哈希值, 读取完毕后关闭输入流
+	 *
+	 * @param in
+	 *            输入流
+	 * @return
+	 * @throws Exception
+	 */
+	public static long hash(InputStream in) throws Exception {
+		try {
+			int read;
+			byte[] buffer = new byte[BUFFER_SIZE];
+			Hasher hasher = newHasher();
+			while ((read = in.read(buffer)) != EOF) {
+				hasher.update(buffer, 0, read);
+			}
+			return hasher.getValue();
+		} catch (Throwable e) {
+			throw new Exception(e);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * 以内存映射的方式分段计算文件内容的哈希值, 与{@link #hash(File)}结果相同
+	 *
+	 * @param file
+	 *            文件
+	 * @return
+	 * @throws Exception
+	 */
+	public static long hashMapped(File file) throws Exception {
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			Hasher hasher = newHasher();
+			for (long position = 0; position < size; position += MAPPED_REGION) {
+				long length = Math.min(MAPPED_REGION, size - position);
+				hasher.update(channel.map(FileChannel.MapMode.READ_ONLY,
+						position, length));
+			}
+			return hasher.getValue();
+		} catch (Throwable e) {
+			throw new Exception(e);
+		} finally {
+			if (raf != null) {
+				raf.close();
+			}
+		}
+	}
+
+	/**
+	 * 创建流式哈希计算器, 使用默认种子
+	 *
+	 * @return
+	 */
+	public static Hasher newHasher() {
+		return new Hasher(DEFAULT_SEED);
+	}
+
+	/**
+	 * 创建流式哈希计算器
+	 *
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static Hasher newHasher(long seed) {
+		return new Hasher(seed);
+	}
+
+	/**
+	 * 一轮累加
+	 */
+	private static long round(long acc, long input) {
+		acc += input * P2;
+		return Long.rotateLeft(acc, 31) * P1;
+	}
+
+	/**
+	 * 合并累加器
+	 */
+	private static long merge(long h, long v) {
+		h ^= round(0, v);
+		return h * P1 + P4;
+	}
+
+	/**
+	 * 收敛四个累加器
+	 */
+	private static long converge(long v1, long v2, long v3, long v4) {
+		long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+				+ Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+		h = merge(h, v1);
+		h = merge(h, v2);
+		h = merge(h, v3);
+		return merge(h, v4);
+	}
+
+	/**
+	 * 混入尾部的8个字节
+	 */
+	private static long mixLong(long h, long k) {
+		h ^= round(0, k);
+		return Long.rotateLeft(h, 27) * P1 + P4;
+	}
+
+	/**
+	 * 混入尾部的4个字节
+	 */
+	private static long mixInt(long h, long unsignedInt) {
+		h ^= unsignedInt * P1;
+		return Long.rotateLeft(h, 23) * P2 + P3;
+	}
+
+	/**
+	 * 混入尾部的单个字节
+	 */
+	private static long mixByte(long h, byte b) {
+		h ^= (b & 0xFF) * P5;
+		return Long.rotateLeft(h, 11) * P1;
+	}
+
+	/**
+	 * 雪崩, 使每个输入位影响全部输出位
+	 */
+	private static long avalanche(long h) {
+		h ^= h >>> 33;
+		h *= P2;
+		h ^= h >>> 29;
+		h *= P3;
+		return h ^ (h >>> 32);
+	}
+
+	/**
+	 * 以小端序读取4个字符
+	 */
+	private static long getLong(CharSequence s, int i) {
+		return s.charAt(i) | (long) s.charAt(i + 1) << 16
+				| (long) s.charAt(i + 2) << 32 | (long) s.charAt(i + 3) << 48;
+	}
+
+	/**
+	 * 流式哈希计算器, 非线程安全
+	 * <p>
+	 * 同时也是一个OutputStream, 可以作为
+	 * {@link FileReadAndOutStreamUtils#write(InputStream, OutputStream)}
+	 * 的输出端, 在拷贝数据的同时计算哈希值.
+	 */
+	public static final class Hasher extends OutputStream {
+
+		private final long seed;
+		private final byte[] buffer = new byte[STRIPE];
+		private final ByteBuffer view = ByteBuffer.wrap(buffer).order(
+				ByteOrder.LITTLE_ENDIAN);
+		private int buffered;
+		private long total;
+		private long v1, v2, v3, v4;
+
+		private Hasher(long seed) {
+			this.seed = seed;
+			reset();
+		}
+
+		/**
+		 * 重置为初始状态
+		 */
+		public void reset() {
+			v1 = seed + P1 + P2;
+			v2 = seed + P2;
+			v3 = seed;
+			v4 = seed - P1;
+			buffered = 0;
+			total = 0;
+		}
+
+		/**
+		 * 追加字节数组区间
+		 *
+		 * @param bytes
+		 *            字节数组
+		 * @param offset
+		 *            开始索引
+		 * @param length
+		 *            长度
+		 * @return
+		 */
+		public Hasher update(byte[] bytes, int offset, int length) {
+			total += length;
+			int end = offset + length;
+			if (buffered > 0) {
+				int n = Math.min(STRIPE - buffered, length);
+				System.arraycopy(bytes, offset, buffer, buffered, n);
+				buffered += n;
+				offset += n;
+				if (buffered < STRIPE) {
+					return this;
+				}
+				stripe(view, 0);
+				buffered = 0;
+			}
+			if (offset <= end - STRIPE) {
+				ByteBuffer le = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+				for (int limit = end - STRIPE; offset <= limit; offset += STRIPE) {
+					stripe(le, offset);
+				}
+			}
+			buffered = end - offset;
+			System.arraycopy(bytes, offset, buffer, 0, buffered);
+			return this;
+		}
+
+		/**
+		 * 追加缓冲区position到limit之间的内容, 读取后缓冲区的position移动到limit
+		 *
+		 * @param src
+		 *            缓冲区
+		 * @return
+		 */
+		public Hasher update(ByteBuffer src) {
+			if (src.hasArray()) {
+				update(src.array(), src.arrayOffset() + src.position(),
+						src.remaining());
+				((Buffer) src).position(src.limit());
+				return this;
+			}
+			ByteBuffer le = src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			total += le.remaining();
+			while (buffered > 0 && le.hasRemaining()) {
+				buffer[buffered++] = le.get();
+				if (buffered == STRIPE) {
+					stripe(view, 0);
+					buffered = 0;
+				}
+			}
+			int i = le.position();
+			for (int limit = le.limit() - STRIPE; i <= limit; i += STRIPE) {
+				v1 = round(v1, le.getLong(i));
+				v2 = round(v2, le.getLong(i + 8));
+				v3 = round(v3, le.getLong(i + 16));
+				v4 = round(v4, le.getLong(i + 24));
+			}
+			((Buffer) le).position(i);
+			while (le.hasRemaining()) {
+				buffer[buffered++] = le.get();
+			}
+			((Buffer) src).position(src.limit());
+			return this;
+		}
+
+		/**
+		 * 追加字符序列的UTF-16LE编码字节
+		 *
+		 * @param str
+		 *            字符序列
+		 * @return
+		 */
+		public Hasher update(CharSequence str) {
+			for (int i = 0, length = str.length(); i < length; i++) {
+				char ch = str.charAt(i);
+				buffer[buffered++] = (byte) ch;
+				if (buffered == STRIPE) {
+					stripe(view, 0);
+					buffered = 0;
+				}
+				buffer[buffered++] = (byte) (ch >>> 8);
+				if (buffered == STRIPE) {
+					stripe(view, 0);
+					buffered = 0;
+				}
+			}
+			total += (long) str.length() * 2;
+			return this;
+		}
+
+		/**
+		 * 当前已追加内容的哈希值, 不影响后续追加
+		 *
+		 * @return
+		 */
+		public long getValue() {
+			long h;
+			if (total >= STRIPE) {
+				h = converge(v1, v2, v3, v4);
+			} else {
+				h = seed + P5;
+			}
+			h += total;
+			int i = 0;
+			for (; i + 8 <= buffered; i += 8) {
+				h = mixLong(h, view.getLong(i));
+			}
+			if (i + 4 <= buffered) {
+				h = mixInt(h, view.getInt(i) & 0xFFFFFFFFL);
+				i += 4;
+			}
+			for (; i < buffered; i++) {
+				h = mixByte(h, buffer[i]);
+			}
+			return avalanche(h);
+		}
+
+		@Override
+		public void write(int b) {
+			buffer[buffered++] = (byte) b;
+			total++;
+			if (buffered == STRIPE) {
+				stripe(view, 0);
+				buffered = 0;
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			update(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			/* 关闭后仍可获取哈希值 */
+		}
+
+		/**
+		 * 处理32字节的数据条带
+		 */
+		private void stripe(ByteBuffer le, int offset) {
+			v1 = round(v1, le.getLong(offset));
+			v2 = round(v2, le.getLong(offset + 8));
+			v3 = round(v3, le.getLong(offset + 16));
+			v4 = round(v4, le.getLong(offset + 24));
+		}
+
+	}
+
+}
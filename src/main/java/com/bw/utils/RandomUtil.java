@@ -1,6 +1,15 @@
 package com.bw.utils;
 import java.util.Random;
-import java.math.BigDecimal;
+import java.util.Spliterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /**
  * 随机种子工具类
@@ -11,20 +20,150 @@ public class RandomUtil {
 
 	private static final int DISPLAYABLE_MIN_INDEX = 33;
 	private static final int DISPLAYABLE_MAX_INDEX = 127 - 1;
-	private static final ThreadLocal<Random> local = new ThreadLocal<Random>() {
-		@Override
-		protected Random initialValue() {
-			return new Random();
+	private static final long UNSIGNED_INT_MASK = 0xFFFFFFFFL;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+	private static final int BLOCK_SIZE = 1 << 16;
+	private static final long BLOCK_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final double POISSON_PTRS_MEAN = 10;
+	private static final double HALF_LOG_TWO_PI = 0.5 * Math.log(2 * Math.PI);
+	private static final double[] LOG_FACTORIALS = new double[256];
+	private static volatile Engine engine = Engine.XOSHIRO256;
+
+	static {
+		for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+			LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
 		}
-	};
+	}
 
 	/**
-	 * 获取Random实例
+	 * 随机数生成引擎
+	 */
+	public enum Engine {
+
+		/**
+		 * java.util.Random, 线性同余, 每次生成都有一次CAS
+		 */
+		JDK {
+			@Override
+			public Random newRandom(long seed) {
+				return new Random(seed);
+			}
+		},
+
+		/**
+		 * java.util.concurrent.ThreadLocalRandom, 无竞争且无需ThreadLocal查找.
+		 * 其实例不支持setSeed, 以种子创建实例时使用{@link #XOSHIRO256}
+		 */
+		THREAD_LOCAL {
+			@Override
+			public Random newRandom(long seed) {
+				return new Xoshiro256StarStar(seed);
+			}
+
+			@Override
+			Random current() {
+				return ThreadLocalRandom.current();
+			}
+		},
+
+		/**
+		 * java.util.SplittableRandom(SplitMix64), 包装为Random
+		 */
+		SPLITTABLE {
+			@Override
+			public Random newRandom(long seed) {
+				return new SplittableRandomAdapter(new SplittableRandom(seed));
+			}
+		},
+
+		/**
+		 * xoshiro256**, 每线程一个实例, 支持setSeed, 默认引擎
+		 */
+		XOSHIRO256 {
+			@Override
+			public Random newRandom(long seed) {
+				return new Xoshiro256StarStar(seed);
+			}
+		};
+
+		private final ThreadLocal<Random> local = ThreadLocal
+				.withInitial(() -> newRandom(ThreadLocalRandom.current()
+						.nextLong()));
+
+		/**
+		 * 以种子创建实例, 相同种子产生相同序列
+		 * 
+		 * @param seed
+		 *            种子
+		 * @return
+		 */
+		public abstract Random newRandom(long seed);
+
+		/**
+		 * 当前线程的实例
+		 * 
+		 * @return
+		 */
+		Random current() {
+			return local.get();
+		}
+
+	}
+
+	/**
+	 * 设置随机数生成引擎, 对此后的全部调用生效
+	 * 
+	 * @param engine
+	 *            引擎
+	 */
+	public static void setEngine(Engine engine) {
+		if (engine == null) {
+			throw new IllegalArgumentException("engine must not be null");
+		}
+		RandomUtil.engine = engine;
+	}
+
+	/**
+	 * 当前的随机数生成引擎
+	 * 
+	 * @return
+	 */
+	public static Engine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * 获取当前线程的Random实例, 由当前引擎提供.
+	 * 引擎为{@link Engine#THREAD_LOCAL}时, 实例的setSeed将抛出UnsupportedOperationException
 	 * 
 	 * @return
 	 */
 	public static Random getRandom() {
-		return local.get();
+		return engine.current();
+	}
+
+	/**
+	 * 以当前引擎和种子创建可复现的Random实例
+	 * 
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static Random newRandom(long seed) {
+		return engine.newRandom(seed);
+	}
+
+	/**
+	 * 以指定引擎和种子创建可复现的Random实例
+	 * 
+	 * @param engine
+	 *            引擎
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static Random newRandom(Engine engine, long seed) {
+		return engine.newRandom(seed);
 	}
 
 	/**
@@ -55,7 +194,8 @@ public class RandomUtil {
 		if (x >= y) { // ensure y > x
 			throw new IllegalArgumentException("y must be greater than x");
 		}
-		return x + getRandom().nextInt(y - x + 1);
+		// y - x + 1溢出时按无符号数即为2^31
+		return x + nextInt(getRandom(), y - x + 1);
 	}
 
 	/**
@@ -86,11 +226,11 @@ public class RandomUtil {
 		if (x >= y) { // ensure y > x
 			throw new IllegalArgumentException("y must be greater than x");
 		}
-		return Math.abs(getRandom().nextLong() % (y - x + 1)) + x;
+		return x + nextLong(getRandom(), y - x + 1);
 	}
 
 	/**
-	 * 产生[0, x]区间的随机小数
+	 * 产生[0, x)区间的随机小数
 	 * 
 	 * @param x
 	 *            > 0
@@ -101,7 +241,7 @@ public class RandomUtil {
 	}
 
 	/**
-	 * 产生[x, y]区间的随机小数
+	 * 产生[x, y)区间的随机小数
 	 * 
 	 * @param x
 	 *            >= 0
@@ -110,11 +250,12 @@ public class RandomUtil {
 	 * @return
 	 */
 	public static float floatSeed(float x, float y) {
-		return (float) doubleSeed(x, y);
+		float value = (float) doubleSeed(x, y);
+		return value < y ? value : Math.nextDown(y);
 	}
 
 	/**
-	 * 产生[0, x]区间的随机小数
+	 * 产生[0, x)区间的随机小数
 	 * 
 	 * @param x
 	 *            > 0
@@ -125,7 +266,7 @@ public class RandomUtil {
 	}
 
 	/**
-	 * 产生[x, y]区间的随机小数
+	 * 产生[x, y)区间的随机小数
 	 * 
 	 * @param x
 	 *            >= 0
@@ -141,12 +282,7 @@ public class RandomUtil {
 		if (x >= y) { // ensure y > x
 			throw new IllegalArgumentException("y must be greater than x");
 		}
-		BigDecimal dx = new BigDecimal(String.valueOf(x));
-		BigDecimal dy = new BigDecimal(String.valueOf(y));
-		double diff = dy.subtract(dx).doubleValue();
-		dx = dx.add(new BigDecimal(String.valueOf(getRandom().nextDouble()
-				* diff)));
-		return dx.doubleValue();
+		return nextDouble(getRandom(), x, y);
 	}
 
 	/**
@@ -155,7 +291,7 @@ public class RandomUtil {
 	 * @return
 	 */
 	public static boolean boolSeed() {
-		return intSeed(0, 1) == 0 ? false : true;
+		return getRandom().nextBoolean();
 	}
 
 	/**
@@ -179,7 +315,1198 @@ public class RandomUtil {
 			throw new IllegalArgumentException(
 					"y must be less than or equal '~'");
 		}
-		return (char) (getRandom().nextInt(y - x + 1) + x);
+		return (char) (x + nextInt(getRandom(), y - x + 1));
+	}
+
+	/**
+	 * 以[x, y]区间的随机数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 */
+	public static void fill(int[] array, int x, int y) {
+		checkRange(x, y);
+		fill(getRandom(), array, 0, array.length, x, y - x + 1);
+	}
+
+	/**
+	 * 以[x, y]区间的随机数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 */
+	public static void fill(long[] array, long x, long y) {
+		checkRange(x, y);
+		fill(getRandom(), array, 0, array.length, x, y - x + 1);
+	}
+
+	/**
+	 * 以[x, y)区间的随机小数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 */
+	public static void fill(double[] array, double x, double y) {
+		checkRange(x, y);
+		fill(getRandom(), array, 0, array.length, x, y);
+	}
+
+	/**
+	 * 以[x, y]区间的随机数并行填充数组. 数组按固定大小分块, 每块使用由种子和块号派生的独立生成器,
+	 * 因此结果只取决于种子, 与线程数无关, 且与{@link #ints(long, int, int, long)}的结果相同
+	 * 
+	 * @param array
+	 *            数组
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelFill(int[] array, int x, int y, long seed) {
+		checkRange(x, y);
+		int bound = y - x + 1;
+		new FillTask(seed, 0, array.length, (random, from, to) -> fill(
+				random, array, from, to, x, bound)).invoke();
+	}
+
+	/**
+	 * 以[x, y]区间的随机数并行填充数组, 结果只取决于种子, 与线程数无关
+	 * 
+	 * @param array
+	 *            数组
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelFill(long[] array, long x, long y, long seed) {
+		checkRange(x, y);
+		long bound = y - x + 1;
+		new FillTask(seed, 0, array.length, (random, from, to) -> fill(
+				random, array, from, to, x, bound)).invoke();
+	}
+
+	/**
+	 * 以[x, y)区间的随机小数并行填充数组, 结果只取决于种子, 与线程数无关,
+	 * 且与{@link #doubles(long, double, double, long)}的结果相同
+	 * 
+	 * @param array
+	 *            数组
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @param seed
+	 *            种子
+	 */
+	public static void parallelFill(double[] array, double x, double y,
+			long seed) {
+		checkRange(x, y);
+		new FillTask(seed, 0, array.length, (random, from, to) -> fill(
+				random, array, from, to, x, y)).invoke();
+	}
+
+	/**
+	 * 产生size个[x, y]区间的随机数, 由当前引擎的各线程实例生成, 可以并行
+	 * 
+	 * @param size
+	 *            个数
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @return
+	 */
+	public static IntStream ints(long size, int x, int y) {
+		checkSize(size);
+		checkRange(x, y);
+		int bound = y - x + 1;
+		return LongStream.range(0, size).mapToInt(
+				i -> x + nextInt(getRandom(), bound));
+	}
+
+	/**
+	 * 产生size个[x, y]区间的随机数, 结果只取决于种子, 顺序流与并行流相同
+	 * 
+	 * @param size
+	 *            个数
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static IntStream ints(long size, int x, int y, long seed) {
+		checkSize(size);
+		checkRange(x, y);
+		return StreamSupport.intStream(new IntBlockSpliterator(seed, 0, size,
+				x, y - x + 1), false);
+	}
+
+	/**
+	 * 产生size个[x, y)区间的随机小数, 由当前引擎的各线程实例生成, 可以并行
+	 * 
+	 * @param size
+	 *            个数
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @return
+	 */
+	public static DoubleStream doubles(long size, double x, double y) {
+		checkSize(size);
+		checkRange(x, y);
+		return LongStream.range(0, size).mapToDouble(
+				i -> nextDouble(getRandom(), x, y));
+	}
+
+	/**
+	 * 产生size个[x, y)区间的随机小数, 结果只取决于种子, 顺序流与并行流相同
+	 * 
+	 * @param size
+	 *            个数
+	 * @param x
+	 *            >= 0
+	 * @param y
+	 *            > x
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static DoubleStream doubles(long size, double x, double y, long seed) {
+		checkSize(size);
+		checkRange(x, y);
+		return StreamSupport.doubleStream(new DoubleBlockSpliterator(seed, 0,
+				size, x, y), false);
+	}
+
+	/**
+	 * 产生0到n - 1的随机排列
+	 * 
+	 * @param n
+	 *            >= 0
+	 * @return
+	 */
+	public static int[] permutation(int n) {
+		int[] permutation = identity(n);
+		ArrayUtil.shuffle(permutation, getRandom());
+		return permutation;
+	}
+
+	/**
+	 * 产生0到n - 1的随机排列, 数组较大时并行打乱, 结果只取决于种子, 与线程数无关
+	 * 
+	 * @param n
+	 *            >= 0
+	 * @param seed
+	 *            种子
+	 * @return
+	 */
+	public static int[] permutation(int n, long seed) {
+		int[] permutation = identity(n);
+		ArrayUtil.parallelShuffle(permutation, seed);
+		return permutation;
+	}
+
+	/**
+	 * 0到n - 1的顺序数组
+	 * 
+	 * @param n
+	 *            >= 0
+	 * @return
+	 */
+	private static int[] identity(int n) {
+		if (n < 0) { // ensure n >= 0
+			throw new IllegalArgumentException(
+					"n must be greater than or equal 0");
+		}
+		int[] identity = new int[n];
+		for (int i = 0; i < n; i++) {
+			identity[i] = i;
+		}
+		return identity;
+	}
+
+	/**
+	 * 产生标准正态分布的随机数(ziggurat算法)
+	 * 
+	 * @return
+	 */
+	public static double gaussianSeed() {
+		return Ziggurat.normal(getRandom());
+	}
+
+	/**
+	 * 产生正态分布的随机数
+	 * 
+	 * @param mean
+	 *            均值
+	 * @param stddev
+	 *            标准差, >= 0
+	 * @return
+	 */
+	public static double gaussianSeed(double mean, double stddev) {
+		checkScale(stddev);
+		return mean + stddev * Ziggurat.normal(getRandom());
+	}
+
+	/**
+	 * 产生指数分布的随机数(ziggurat算法)
+	 * 
+	 * @param mean
+	 *            均值, 即1 / λ, >= 0
+	 * @return
+	 */
+	public static double exponentialSeed(double mean) {
+		checkScale(mean);
+		return mean * Ziggurat.exponential(getRandom());
+	}
+
+	/**
+	 * 产生对数正态分布的随机数, 即exp(N(mu, sigma^2))
+	 * 
+	 * @param mu
+	 *            对数的均值
+	 * @param sigma
+	 *            对数的标准差, >= 0
+	 * @return
+	 */
+	public static double logNormalSeed(double mu, double sigma) {
+		checkScale(sigma);
+		return Math.exp(mu + sigma * Ziggurat.normal(getRandom()));
+	}
+
+	/**
+	 * 产生泊松分布的随机数. 均值较小时逆变换, 较大时以PTRS变换拒绝法, 期望时间与均值无关
+	 * 
+	 * @param mean
+	 *            均值, >= 0
+	 * @return
+	 */
+	public static long poissonSeed(double mean) {
+		checkScale(mean);
+		return poisson(getRandom(), mean);
+	}
+
+	/**
+	 * 创建Zipf分布的抽样器, 取值为1到n, P(k)与1 / k^s成正比
+	 * 
+	 * @param n
+	 *            取值个数, > 0
+	 * @param s
+	 *            指数, > 0
+	 * @return
+	 */
+	public static Zipf zipf(long n, double s) {
+		return new Zipf(n, s);
+	}
+
+	/**
+	 * 以正态分布的随机数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param mean
+	 *            均值
+	 * @param stddev
+	 *            标准差, >= 0
+	 */
+	public static void fillGaussian(double[] array, double mean, double stddev) {
+		checkScale(stddev);
+		Random random = getRandom();
+		for (int i = 0; i < array.length; i++) {
+			array[i] = mean + stddev * Ziggurat.normal(random);
+		}
+	}
+
+	/**
+	 * 以指数分布的随机数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param mean
+	 *            均值, >= 0
+	 */
+	public static void fillExponential(double[] array, double mean) {
+		checkScale(mean);
+		Random random = getRandom();
+		for (int i = 0; i < array.length; i++) {
+			array[i] = mean * Ziggurat.exponential(random);
+		}
+	}
+
+	/**
+	 * 以对数正态分布的随机数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param mu
+	 *            对数的均值
+	 * @param sigma
+	 *            对数的标准差, >= 0
+	 */
+	public static void fillLogNormal(double[] array, double mu, double sigma) {
+		checkScale(sigma);
+		Random random = getRandom();
+		for (int i = 0; i < array.length; i++) {
+			array[i] = Math.exp(mu + sigma * Ziggurat.normal(random));
+		}
+	}
+
+	/**
+	 * 以泊松分布的随机数填充数组
+	 * 
+	 * @param array
+	 *            数组
+	 * @param mean
+	 *            均值, >= 0
+	 */
+	public static void fillPoisson(long[] array, double mean) {
+		checkScale(mean);
+		Random random = getRandom();
+		for (int i = 0; i < array.length; i++) {
+			array[i] = poisson(random, mean);
+		}
+	}
+
+	/**
+	 * 以Lemire的乘法移位法产生[0, bound)区间的无偏随机数, 极少需要除法
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param bound
+	 *            上界, 按无符号数解释, 0表示2^32
+	 * @return 按无符号数解释的结果
+	 */
+	static int nextInt(Random random, int bound) {
+		long range = bound & UNSIGNED_INT_MASK;
+		if (range == 0) {
+			return random.nextInt();
+		}
+		long product = (random.nextInt() & UNSIGNED_INT_MASK) * range;
+		long low = product & UNSIGNED_INT_MASK;
+		if (low < range) {
+			// 2^32 mod range, 低位落在此区间内的结果会造成偏差, 需要重抽
+			long threshold = (1L << 32) % range;
+			while (low < threshold) {
+				product = (random.nextInt() & UNSIGNED_INT_MASK) * range;
+				low = product & UNSIGNED_INT_MASK;
+			}
+		}
+		return (int) (product >>> 32);
+	}
+
+	/**
+	 * 以Lemire的乘法移位法产生[0, bound)区间的无偏随机数
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param bound
+	 *            上界, 按无符号数解释, 0表示2^64
+	 * @return 按无符号数解释的结果
+	 */
+	static long nextLong(Random random, long bound) {
+		if (bound == 0) {
+			return random.nextLong();
+		}
+		long r = random.nextLong();
+		long low = r * bound;
+		if (Long.compareUnsigned(low, bound) < 0) {
+			long threshold = Long.remainderUnsigned(-bound, bound);
+			while (Long.compareUnsigned(low, threshold) < 0) {
+				r = random.nextLong();
+				low = r * bound;
+			}
+		}
+		return multiplyHighUnsigned(r, bound);
+	}
+
+	/**
+	 * 产生[0, 1)区间的随机小数, 取64位随机数的高53位, 每个结果都是2^-53的整数倍
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	static double nextDouble(Random random) {
+		return (random.nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * 两个无符号64位数乘积的高64位
+	 * 
+	 * @param a
+	 *            乘数
+	 * @param b
+	 *            乘数
+	 * @return
+	 */
+	static long multiplyHighUnsigned(long a, long b) {
+		long aLow = a & UNSIGNED_INT_MASK, aHigh = a >>> 32;
+		long bLow = b & UNSIGNED_INT_MASK, bHigh = b >>> 32;
+		long low = aLow * bLow;
+		long middle = aHigh * bLow + (low >>> 32);
+		long cross = aLow * bHigh + (middle & UNSIGNED_INT_MASK);
+		return aHigh * bHigh + (middle >>> 32) + (cross >>> 32);
+	}
+
+	/**
+	 * 产生[x, y)区间的随机小数, 舍入恰好得到y时取y之前的相邻值
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param x
+	 *            下界
+	 * @param y
+	 *            上界
+	 * @return
+	 */
+	static double nextDouble(Random random, double x, double y) {
+		double value = x + nextDouble(random) * (y - x);
+		return value < y ? value : Math.nextDown(y);
+	}
+
+	/**
+	 * 填充数组的[from, to)区间
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param x
+	 *            下界
+	 * @param bound
+	 *            区间长度, 按无符号数解释
+	 */
+	private static void fill(Random random, int[] array, int from, int to,
+			int x, int bound) {
+		for (int i = from; i < to; i++) {
+			array[i] = x + nextInt(random, bound);
+		}
+	}
+
+	/**
+	 * 填充数组的[from, to)区间
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param x
+	 *            下界
+	 * @param bound
+	 *            区间长度, 按无符号数解释
+	 */
+	private static void fill(Random random, long[] array, int from, int to,
+			long x, long bound) {
+		for (int i = from; i < to; i++) {
+			array[i] = x + nextLong(random, bound);
+		}
+	}
+
+	/**
+	 * 填充数组的[from, to)区间
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param array
+	 *            数组
+	 * @param from
+	 *            起始下标
+	 * @param to
+	 *            结束下标
+	 * @param x
+	 *            下界
+	 * @param y
+	 *            上界
+	 */
+	private static void fill(Random random, double[] array, int from, int to,
+			double x, double y) {
+		for (int i = from; i < to; i++) {
+			array[i] = nextDouble(random, x, y);
+		}
+	}
+
+	/**
+	 * 第block块的生成器, 只取决于种子和块号
+	 * 
+	 * @param seed
+	 *            种子
+	 * @param block
+	 *            块号
+	 * @return
+	 */
+	static Random blockRandom(long seed, long block) {
+		return new Xoshiro256StarStar(Xoshiro256StarStar.mix64(seed + block
+				* BLOCK_GAMMA));
+	}
+
+	/**
+	 * 校验区间: 0 <= x < y
+	 * 
+	 * @param x
+	 *            下界
+	 * @param y
+	 *            上界
+	 */
+	private static void checkRange(long x, long y) {
+		if (x < 0) { // ensure x >= 0
+			throw new IllegalArgumentException(
+					"x must be greater than or equal 0");
+		}
+		if (x >= y) { // ensure y > x
+			throw new IllegalArgumentException("y must be greater than x");
+		}
+	}
+
+	/**
+	 * 校验区间: 0 <= x < y
+	 * 
+	 * @param x
+	 *            下界
+	 * @param y
+	 *            上界
+	 */
+	private static void checkRange(double x, double y) {
+		if (x < 0) { // ensure x >= 0
+			throw new IllegalArgumentException(
+					"x must be greater than or equal 0");
+		}
+		if (x >= y) { // ensure y > x
+			throw new IllegalArgumentException("y must be greater than x");
+		}
+	}
+
+	/**
+	 * 校验个数: size >= 0
+	 * 
+	 * @param size
+	 *            个数
+	 */
+	private static void checkSize(long size) {
+		if (size < 0) { // ensure size >= 0
+			throw new IllegalArgumentException(
+					"size must be greater than or equal 0");
+		}
+	}
+
+	/**
+	 * 标准正态分布的随机数
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	static double gaussian(Random random) {
+		return Ziggurat.normal(random);
+	}
+
+	/**
+	 * 标准指数分布的随机数
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	static double exponential(Random random) {
+		return Ziggurat.exponential(random);
+	}
+
+	/**
+	 * 泊松分布的随机数. 均值小于{@link #POISSON_PTRS_MEAN}时按累积概率逆变换,
+	 * 否则使用Hörmann的PTRS变换拒绝法
+	 * 
+	 * @param random
+	 *            随机数生成器
+	 * @param mean
+	 *            均值
+	 * @return
+	 */
+	static long poisson(Random random, double mean) {
+		if (mean < POISSON_PTRS_MEAN) {
+			double u = nextDouble(random);
+			double p = Math.exp(-mean);
+			double sum = p;
+			long k = 0;
+			// 累积概率因舍入误差可能达不到1, 以p降为0作为终止条件
+			while (u > sum && p > 0) {
+				k++;
+				p *= mean / k;
+				sum += p;
+			}
+			return k;
+		}
+		double logMean = Math.log(mean);
+		double b = 0.931 + 2.53 * Math.sqrt(mean);
+		double a = -0.059 + 0.02483 * b;
+		double logAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+		double vr = 0.9277 - 3.6224 / (b - 2);
+		while (true) {
+			double u = nextDouble(random) - 0.5;
+			double v = 1 - nextDouble(random);
+			double us = 0.5 - Math.abs(u);
+			double k = Math.floor((2 * a / us + b) * u + mean + 0.43);
+			if (us >= 0.07 && v <= vr) {
+				return (long) k;
+			}
+			if (k < 0 || us < 0.013 && v > us) {
+				continue;
+			}
+			if (Math.log(v) + logAlpha - Math.log(a / (us * us) + b) <= -mean
+					+ k * logMean - logFactorial(k)) {
+				return (long) k;
+			}
+		}
+	}
+
+	/**
+	 * ln(k!), k较小时查表, 否则使用Stirling级数
+	 * 
+	 * @param k
+	 *            >= 0
+	 * @return
+	 */
+	private static double logFactorial(double k) {
+		if (k < LOG_FACTORIALS.length) {
+			return LOG_FACTORIALS[(int) k];
+		}
+		double x = k + 1;
+		double inverse = 1 / x;
+		double inverse2 = inverse * inverse;
+		return (x - 0.5) * Math.log(x) - x + HALF_LOG_TWO_PI + inverse
+				* (1.0 / 12 - inverse2 * (1.0 / 360 - inverse2 / 1260));
+	}
+
+	/**
+	 * 校验分布的尺度参数: 非负且有限
+	 * 
+	 * @param scale
+	 *            尺度参数
+	 */
+	static void checkScale(double scale) {
+		if (!(scale >= 0) || scale == Double.POSITIVE_INFINITY) {
+			throw new IllegalArgumentException(
+					"scale must be a finite number greater than or equal 0");
+		}
+	}
+
+	/**
+	 * 以块的生成器填充数组的一段
+	 */
+	private interface RangeFiller {
+
+		void fill(Random random, int from, int to);
+
+	}
+
+	/**
+	 * 并行填充任务, 按块二分, 每个叶子任务填充一块. 分块只取决于数组长度, 与线程数无关
+	 */
+	private static final class FillTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long seed;
+		private final int from;
+		private final int to;
+		private final RangeFiller filler;
+
+		private FillTask(long seed, int from, int to, RangeFiller filler) {
+			this.seed = seed;
+			this.from = from;
+			this.to = to;
+			this.filler = filler;
+		}
+
+		@Override
+		protected void compute() {
+			int blocks = (int) ((to - from + (long) BLOCK_SIZE - 1) / BLOCK_SIZE);
+			if (blocks > 1) {
+				int middle = from + (blocks >>> 1) * BLOCK_SIZE;
+				invokeAll(new FillTask(seed, from, middle, filler),
+						new FillTask(seed, middle, to, filler));
+				return;
+			}
+			filler.fill(blockRandom(seed, from / BLOCK_SIZE), from, to);
+		}
+
+	}
+
+	/**
+	 * 按块生成随机数的Spliterator, 只在块边界处拆分, 第i个元素的值只取决于种子和i
+	 */
+	private abstract static class BlockSpliterator {
+
+		protected final long seed;
+		protected final long fence;
+		protected long index;
+		private Random random;
+
+		private BlockSpliterator(long seed, long index, long fence) {
+			this.seed = seed;
+			this.index = index;
+			this.fence = fence;
+		}
+
+		/**
+		 * 当前元素所在块的生成器, 进入新块时重新创建
+		 * 
+		 * @return
+		 */
+		protected Random random() {
+			if (random == null || index % BLOCK_SIZE == 0) {
+				random = blockRandom(seed, index / BLOCK_SIZE);
+			}
+			return random;
+		}
+
+		/**
+		 * 拆分点, 取剩余块数的一半; 当前块已开始生成或剩余不足两块时返回-1
+		 * 
+		 * @return
+		 */
+		protected long splitIndex() {
+			if (index % BLOCK_SIZE != 0) {
+				return -1;
+			}
+			long middle = index + ((fence - index) / BLOCK_SIZE >>> 1)
+					* BLOCK_SIZE;
+			if (middle <= index) {
+				return -1;
+			}
+			random = null;
+			return middle;
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED
+					| Spliterator.ORDERED | Spliterator.IMMUTABLE
+					| Spliterator.NONNULL;
+		}
+
+	}
+
+	/**
+	 * [x, x + bound)区间的随机数
+	 */
+	private static final class IntBlockSpliterator extends BlockSpliterator
+			implements Spliterator.OfInt {
+
+		private final int x;
+		private final int bound;
+
+		private IntBlockSpliterator(long seed, long index, long fence, int x,
+				int bound) {
+			super(seed, index, fence);
+			this.x = x;
+			this.bound = bound;
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			long middle = splitIndex();
+			if (middle < 0) {
+				return null;
+			}
+			Spliterator.OfInt prefix = new IntBlockSpliterator(seed, index,
+					middle, x, bound);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(x + nextInt(random(), bound));
+			index++;
+			return true;
+		}
+
+	}
+
+	/**
+	 * [x, y)区间的随机小数
+	 */
+	private static final class DoubleBlockSpliterator extends BlockSpliterator
+			implements Spliterator.OfDouble {
+
+		private final double x;
+		private final double y;
+
+		private DoubleBlockSpliterator(long seed, long index, long fence,
+				double x, double y) {
+			super(seed, index, fence);
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public Spliterator.OfDouble trySplit() {
+			long middle = splitIndex();
+			if (middle < 0) {
+				return null;
+			}
+			Spliterator.OfDouble prefix = new DoubleBlockSpliterator(seed,
+					index, middle, x, y);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(DoubleConsumer action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(nextDouble(random(), x, y));
+			index++;
+			return true;
+		}
+
+	}
+
+	/**
+	 * Zipf分布的抽样器(Hörmann与Derflinger的拒绝逆变换法). 构造时只计算几个常数, 每次抽样的期望时间与n无关,
+	 * 适合为10^8量级的键产生热点倾斜的访问. 实例不可变, 可被多个线程共享
+	 */
+	public static final class Zipf {
+
+		private final long n;
+		private final double exponent;
+		private final double hIntegralX1;
+		private final double hIntegralN;
+		private final double threshold;
+
+		private Zipf(long n, double exponent) {
+			if (n <= 0) {
+				throw new IllegalArgumentException("n must be greater than 0");
+			}
+			if (!(exponent > 0) || exponent == Double.POSITIVE_INFINITY) {
+				throw new IllegalArgumentException(
+						"exponent must be a finite number greater than 0");
+			}
+			this.n = n;
+			this.exponent = exponent;
+			this.hIntegralX1 = hIntegral(1.5) - 1;
+			this.hIntegralN = hIntegral(n + 0.5);
+			this.threshold = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+		}
+
+		/**
+		 * 取值个数
+		 * 
+		 * @return
+		 */
+		public long getN() {
+			return n;
+		}
+
+		/**
+		 * 指数
+		 * 
+		 * @return
+		 */
+		public double getExponent() {
+			return exponent;
+		}
+
+		/**
+		 * 产生[1, n]区间的随机数, 使用{@link RandomUtil#getRandom()}
+		 * 
+		 * @return
+		 */
+		public long next() {
+			return next(getRandom());
+		}
+
+		/**
+		 * 产生[1, n]区间的随机数
+		 * 
+		 * @param random
+		 *            随机数生成器
+		 * @return
+		 */
+		public long next(Random random) {
+			while (true) {
+				double u = hIntegralN + nextDouble(random)
+						* (hIntegralX1 - hIntegralN);
+				double x = hIntegralInverse(u);
+				long k = (long) (x + 0.5);
+				if (k < 1) {
+					k = 1;
+				} else if (k > n) {
+					k = n;
+				}
+				if (k - x <= threshold || u >= hIntegral(k + 0.5) - h(k)) {
+					return k;
+				}
+			}
+		}
+
+		/**
+		 * 以随机数填充数组
+		 * 
+		 * @param array
+		 *            数组
+		 */
+		public void fill(long[] array) {
+			Random random = getRandom();
+			for (int i = 0; i < array.length; i++) {
+				array[i] = next(random);
+			}
+		}
+
+		/**
+		 * h(x) = 1 / x^s
+		 */
+		private double h(double x) {
+			return Math.exp(-exponent * Math.log(x));
+		}
+
+		/**
+		 * h的原函数: (x^(1 - s) - 1) / (1 - s), s = 1时为ln(x)
+		 */
+		private double hIntegral(double x) {
+			double logX = Math.log(x);
+			return expm1Ratio((1 - exponent) * logX) * logX;
+		}
+
+		/**
+		 * hIntegral的反函数
+		 */
+		private double hIntegralInverse(double x) {
+			double t = x * (1 - exponent);
+			if (t < -1) {
+				// 舍入误差可能使t略小于-1
+				t = -1;
+			}
+			return Math.exp(log1pRatio(t) * x);
+		}
+
+		/**
+		 * expm1(x) / x, x接近0时使用泰勒展开
+		 */
+		private static double expm1Ratio(double x) {
+			if (Math.abs(x) > 1e-8) {
+				return Math.expm1(x) / x;
+			}
+			return 1 + x * 0.5 * (1 + x / 3 * (1 + x * 0.25));
+		}
+
+		/**
+		 * log1p(x) / x, x接近0时使用泰勒展开
+		 */
+		private static double log1pRatio(double x) {
+			if (Math.abs(x) > 1e-8) {
+				return Math.log1p(x) / x;
+			}
+			return 1 - x * (0.5 - x * (1.0 / 3 - x * 0.25));
+		}
+
+	}
+
+	/**
+	 * Marsaglia与Tsang的ziggurat算法: 正态分布128层、指数分布256层. 绝大多数抽样只需一次64位随机数、
+	 * 一次比较和一次乘法, 低位选层、高32位作为层内位置, 两者互不相关
+	 */
+	private static final class Ziggurat {
+
+		private static final double NORMAL_R = 3.442619855899;
+		private static final double NORMAL_AREA = 9.91256303526217e-3;
+		private static final double EXPONENTIAL_R = 7.697117470131487;
+		private static final double EXPONENTIAL_AREA = 3.949659822581572e-3;
+		private static final double TWO_31 = 2147483648.0;
+		private static final double TWO_32 = 4294967296.0;
+
+		private static final long[] KN = new long[128];
+		private static final double[] WN = new double[128];
+		private static final double[] FN = new double[128];
+		private static final long[] KE = new long[256];
+		private static final double[] WE = new double[256];
+		private static final double[] FE = new double[256];
+
+		static {
+			double d = NORMAL_R, t = d;
+			double q = NORMAL_AREA / Math.exp(-0.5 * d * d);
+			KN[0] = (long) (d / q * TWO_31);
+			KN[1] = 0;
+			WN[0] = q / TWO_31;
+			WN[127] = d / TWO_31;
+			FN[0] = 1;
+			FN[127] = Math.exp(-0.5 * d * d);
+			for (int i = 126; i >= 1; i--) {
+				d = Math.sqrt(-2 * Math.log(NORMAL_AREA / d
+						+ Math.exp(-0.5 * d * d)));
+				KN[i + 1] = (long) (d / t * TWO_31);
+				t = d;
+				FN[i] = Math.exp(-0.5 * d * d);
+				WN[i] = d / TWO_31;
+			}
+			d = EXPONENTIAL_R;
+			t = d;
+			q = EXPONENTIAL_AREA / Math.exp(-d);
+			KE[0] = (long) (d / q * TWO_32);
+			KE[1] = 0;
+			WE[0] = q / TWO_32;
+			WE[255] = d / TWO_32;
+			FE[0] = 1;
+			FE[255] = Math.exp(-d);
+			for (int i = 254; i >= 1; i--) {
+				d = -Math.log(EXPONENTIAL_AREA / d + Math.exp(-d));
+				KE[i + 1] = (long) (d / t * TWO_32);
+				t = d;
+				FE[i] = Math.exp(-d);
+				WE[i] = d / TWO_32;
+			}
+		}
+
+		/**
+		 * 标准正态分布
+		 * 
+		 * @param random
+		 *            随机数生成器
+		 * @return
+		 */
+		private static double normal(Random random) {
+			while (true) {
+				long bits = random.nextLong();
+				int layer = (int) bits & 127;
+				long position = bits >> 32;
+				double x = position * WN[layer];
+				if (Math.abs(position) < KN[layer]) {
+					return x;
+				}
+				if (layer == 0) {
+					// 尾部: Marsaglia的尾部算法
+					double tail, y;
+					do {
+						tail = -Math.log(1 - nextDouble(random)) / NORMAL_R;
+						y = -Math.log(1 - nextDouble(random));
+					} while (y + y < tail * tail);
+					return position > 0 ? NORMAL_R + tail : -NORMAL_R - tail;
+				}
+				if (FN[layer] + nextDouble(random) * (FN[layer - 1] - FN[layer]) < Math
+						.exp(-0.5 * x * x)) {
+					return x;
+				}
+			}
+		}
+
+		/**
+		 * 标准指数分布
+		 * 
+		 * @param random
+		 *            随机数生成器
+		 * @return
+		 */
+		private static double exponential(Random random) {
+			double shift = 0;
+			while (true) {
+				long bits = random.nextLong();
+				int layer = (int) bits & 255;
+				long position = bits >>> 32;
+				double x = position * WE[layer];
+				if (position < KE[layer]) {
+					return shift + x;
+				}
+				if (layer == 0) {
+					// 指数分布无记忆, 尾部即平移后的指数分布
+					shift += EXPONENTIAL_R;
+					continue;
+				}
+				if (FE[layer] + nextDouble(random) * (FE[layer - 1] - FE[layer]) < Math
+						.exp(-x)) {
+					return shift + x;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * 以Random的接口使用SplittableRandom, 非线程安全
+	 */
+	private static final class SplittableRandomAdapter extends Random {
+
+		private static final long serialVersionUID = 1L;
+
+		private final SplittableRandom random;
+
+		private SplittableRandomAdapter(SplittableRandom random) {
+			super(0);
+			this.random = random;
+		}
+
+		@Override
+		public synchronized void setSeed(long seed) {
+			// 父类构造方法会调用本方法, 此时忽略即可; SplittableRandom不支持重置种子
+			if (random != null) {
+				throw new UnsupportedOperationException();
+			}
+		}
+
+		@Override
+		protected int next(int bits) {
+			return (int) (random.nextLong() >>> (64 - bits));
+		}
+
+		@Override
+		public int nextInt() {
+			return random.nextInt();
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return random.nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return random.nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return random.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return random.nextBoolean();
+		}
+
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,577 @@
+package com.bw.utils;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 蓄水池抽样, 从长度未知的数据中等概率(或按权重)抽取至多k个元素
+ * <p>
+ * 每个元素持有一个指数分布的键E / w, 蓄水池保留键最小的k个. 蓄水池满后, 以当前最大的键计算
+ * 下一次被选中前可以跳过的权重(等权重时即Li的Algorithm L, 带权重时即Efraimidis-Spirakis的A-ExpJ),
+ * 被跳过的元素不产生随机数, 文件抽样时也不解码. 两个抽样器的键可直接合并, 因此可以把数据分段后
+ * 并行抽样再合并, 结果与顺序抽样的分布相同. 本类不是线程安全的.
+ *
+ * <pre>
+ * ReservoirSampler&lt;String&gt; sampler = new ReservoirSampler&lt;String&gt;(100);
+ * while (iterator.hasNext()) {
+ * 	sampler.add(iterator.next());
+ * }
+ * List&lt;String&gt; sample = sampler.getSample();
+ * List&lt;String&gt; lines = ReservoirSampler.parallelSampleLines(file, 100);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class ReservoirSampler<T> {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final long MIN_CHUNK = 4 * 1024 * 1024;
+	private static final String DEFAULT_CHARSET = "UTF-8";
+
+	private final int capacity;
+	private final Random random;
+	private final double[] keys;
+	private final Object[] items;
+	private int size;
+	private long count;
+	private double remaining;
+
+	/**
+	 * 创建抽样器, 使用{@link RandomUtil#getRandom()}
+	 *
+	 * @param capacity
+	 *            样本容量
+	 */
+	public ReservoirSampler(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * 创建抽样器
+	 *
+	 * @param capacity
+	 *            样本容量
+	 * @param random
+	 *            随机数生成器, 为null时使用{@link RandomUtil#getRandom()}
+	 */
+	public ReservoirSampler(int capacity, Random random) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException(
+					"capacity must be greater than 0");
+		}
+		this.capacity = capacity;
+		this.random = random;
+		this.keys = new double[capacity];
+		this.items = new Object[capacity];
+	}
+
+	/**
+	 * 以等权重加入元素
+	 *
+	 * @param item
+	 *            元素
+	 */
+	public void add(T item) {
+		count++;
+		if (size < capacity) {
+			offer(exponential(), item);
+			return;
+		}
+		if (--remaining > 0) {
+			return;
+		}
+		replace(1, item);
+	}
+
+	/**
+	 * 按权重加入元素, 被抽中的概率与权重成正比
+	 *
+	 * @param item
+	 *            元素
+	 * @param weight
+	 *            权重, 非负且有限, 为0时不会被抽中
+	 */
+	public void add(T item, double weight) {
+		if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+			throw new IllegalArgumentException(
+					"weight must be a finite number greater than or equal 0");
+		}
+		count++;
+		if (weight == 0) {
+			return;
+		}
+		if (size < capacity) {
+			offer(exponential() / weight, item);
+			return;
+		}
+		remaining -= weight;
+		if (remaining > 0) {
+			return;
+		}
+		replace(weight, item);
+	}
+
+	/**
+	 * 加入迭代器的全部元素, 被跳过的元素只调用next()
+	 *
+	 * @param iterator
+	 *            迭代器
+	 */
+	public void addAll(Iterator<? extends T> iterator) {
+		while (iterator.hasNext()) {
+			long skip = skippable();
+			long skipped = 0;
+			while (skipped < skip && iterator.hasNext()) {
+				iterator.next();
+				skipped++;
+			}
+			skip(skipped);
+			if (iterator.hasNext()) {
+				add(iterator.next());
+			}
+		}
+	}
+
+	/**
+	 * 在下一次选中之前, 可以直接跳过的等权重元素个数
+	 *
+	 * @return
+	 */
+	public long skippable() {
+		if (size < capacity) {
+			return 0;
+		}
+		double skip = Math.ceil(remaining) - 1;
+		return skip < Long.MAX_VALUE ? (long) skip : Long.MAX_VALUE;
+	}
+
+	/**
+	 * 跳过n个等权重元素, 等同于调用n次{@link #add(Object)}且都未被选中
+	 *
+	 * @param n
+	 *            个数, 不超过{@link #skippable()}
+	 */
+	public void skip(long n) {
+		if (n < 0 || n > skippable()) {
+			throw new IllegalArgumentException(
+					"n must be between 0 and skippable()");
+		}
+		count += n;
+		remaining -= n;
+	}
+
+	/**
+	 * 合并另一个抽样器的样本, 结果等同于在两部分数据合在一起上抽样. 两者应使用独立的随机数生成器
+	 *
+	 * @param other
+	 *            另一个抽样器
+	 */
+	@SuppressWarnings("unchecked")
+	public void merge(ReservoirSampler<? extends T> other) {
+		for (int i = 0; i < other.size; i++) {
+			double key = other.keys[i];
+			if (size < capacity) {
+				offer(key, (T) other.items[i]);
+			} else if (key < keys[0]) {
+				keys[0] = key;
+				items[0] = other.items[i];
+				siftDown();
+			}
+		}
+		count += other.count;
+		if (size == capacity) {
+			// 指数分布无记忆, 可以重新生成待跳过的权重
+			remaining = exponential() / keys[0];
+		}
+	}
+
+	/**
+	 * 当前样本, 顺序不确定
+	 *
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> getSample() {
+		List<T> sample = new ArrayList<T>(size);
+		for (int i = 0; i < size; i++) {
+			sample.add((T) items[i]);
+		}
+		return sample;
+	}
+
+	/**
+	 * 已加入(包括被跳过)的元素个数
+	 *
+	 * @return
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * 样本容量
+	 *
+	 * @return
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * 从迭代器中等概率抽取至多k个元素
+	 *
+	 * @param iterator
+	 *            迭代器
+	 * @param k
+	 *            样本容量
+	 * @return
+	 */
+	public static <T> List<T> sample(Iterator<? extends T> iterator, int k) {
+		ReservoirSampler<T> sampler = new ReservoirSampler<T>(k);
+		sampler.addAll(iterator);
+		return sampler.getSample();
+	}
+
+	/**
+	 * 从流中等概率抽取至多k个元素, 并行流按段抽样后合并
+	 *
+	 * @param stream
+	 *            流
+	 * @param k
+	 *            样本容量
+	 * @return
+	 */
+	public static <T> List<T> sample(Stream<? extends T> stream, final int k) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k must be greater than 0");
+		}
+		return stream.collect(() -> new ReservoirSampler<T>(k),
+				ReservoirSampler::add, ReservoirSampler::merge).getSample();
+	}
+
+	/**
+	 * 从文件中等概率抽取至多k行, 使用UTF-8字符集编码
+	 *
+	 * @param file
+	 *            文件
+	 * @param k
+	 *            样本容量
+	 * @return
+	 * @throws Exception
+	 */
+	public static List<String> sampleLines(File file, int k) throws Exception {
+		return sampleLines(file, k, DEFAULT_CHARSET);
+	}
+
+	/**
+	 * 从文件中等概率抽取至多k行. 只扫描被跳过行的换行符, 不解码
+	 *
+	 * @param file
+	 *            文件
+	 * @param k
+	 *            样本容量
+	 * @param charset
+	 *            使用的字符集编码
+	 * @return
+	 * @throws Exception
+	 */
+	public static List<String> sampleLines(File file, int k, String charset)
+			throws Exception {
+		try {
+			ReservoirSampler<String> sampler = new ReservoirSampler<String>(k);
+			sampleLines(file, Charset.forName(charset), 0, file.length(),
+					sampler);
+			return sampler.getSample();
+		} catch (Throwable e) {
+			throw new Exception(e);
+		}
+	}
+
+	/**
+	 * 从文件中等概率抽取至多k行, 使用UTF-8字符集编码, 文件分段后并行抽样
+	 *
+	 * @param file
+	 *            文件
+	 * @param k
+	 *            样本容量
+	 * @return
+	 * @throws Exception
+	 */
+	public static List<String> parallelSampleLines(File file, int k)
+			throws Exception {
+		return parallelSampleLines(file, k, DEFAULT_CHARSET);
+	}
+
+	/**
+	 * 从文件中等概率抽取至多k行. 文件按字节分段, 每段抽样起始于该段内的行, 各段的样本合并后
+	 * 与顺序抽样的分布相同
+	 *
+	 * @param file
+	 *            文件
+	 * @param k
+	 *            样本容量
+	 * @param charset
+	 *            使用的字符集编码
+	 * @return
+	 * @throws Exception
+	 */
+	public static List<String> parallelSampleLines(final File file,
+			final int k, String charset) throws Exception {
+		try {
+			final Charset decoder = Charset.forName(charset);
+			final long length = file.length();
+			final int chunks = (int) Math.max(1, Math.min(length / MIN_CHUNK,
+					ForkJoinPool.getCommonPoolParallelism() * 4));
+			return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+				ReservoirSampler<String> sampler = new ReservoirSampler<String>(k);
+				long from = length * chunk / chunks;
+				long to = length * (chunk + 1) / chunks;
+				try {
+					sampleLines(file, decoder, from, to, sampler);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return sampler;
+			}).reduce((a, b) -> {
+				a.merge(b);
+				return a;
+			}).get().getSample();
+		} catch (Throwable e) {
+			throw new Exception(e instanceof UncheckedIOException ? e
+					.getCause() : e);
+		}
+	}
+
+	/**
+	 * 抽样起始于[from, to)区间的行. from不是行首时, 从其后的第一个行首开始
+	 *
+	 * @param file
+	 *            文件
+	 * @param charset
+	 *            字符集
+	 * @param from
+	 *            起始字节位置
+	 * @param to
+	 *            结束字节位置
+	 * @param sampler
+	 *            抽样器
+	 * @throws IOException
+	 */
+	private static void sampleLines(File file, Charset charset, long from,
+			long to, ReservoirSampler<String> sampler) throws IOException {
+		LineReader reader = new LineReader(file, from > 0 ? from - 1 : 0);
+		try {
+			if (from > 0) {
+				reader.next(false);
+			}
+			while (reader.position < to) {
+				long skip = sampler.skippable();
+				long skipped = 0;
+				while (skipped < skip && reader.position < to
+						&& reader.next(false)) {
+					skipped++;
+				}
+				sampler.skip(skipped);
+				if (reader.position >= to || !reader.next(true)) {
+					return;
+				}
+				sampler.add(reader.line(charset));
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * 以随机键加入未满的蓄水池
+	 *
+	 * @param key
+	 *            键
+	 * @param item
+	 *            元素
+	 */
+	private void offer(double key, Object item) {
+		// 大顶堆, 堆顶是最大的键
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (keys[parent] >= key) {
+				break;
+			}
+			keys[i] = keys[parent];
+			items[i] = items[parent];
+			i = parent;
+		}
+		keys[i] = key;
+		items[i] = item;
+		if (size == capacity) {
+			remaining = exponential() / keys[0];
+		}
+	}
+
+	/**
+	 * 以小于堆顶的随机键替换堆顶, 并重新生成待跳过的权重
+	 *
+	 * @param weight
+	 *            权重
+	 * @param item
+	 *            元素
+	 */
+	private void replace(double weight, Object item) {
+		// 键E / w小于堆顶t的概率为1 - exp(-w * t), 在此条件下按逆变换生成键
+		double threshold = -Math.expm1(-weight * keys[0]);
+		double u = 1 - RandomUtil.nextDouble(random());
+		keys[0] = Math.min(-Math.log1p(-threshold * u) / weight, keys[0]);
+		items[0] = item;
+		siftDown();
+		remaining = exponential() / keys[0];
+	}
+
+	/**
+	 * 堆顶下沉
+	 */
+	private void siftDown() {
+		double key = keys[0];
+		Object item = items[0];
+		int i = 0;
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && keys[child + 1] > keys[child]) {
+				child++;
+			}
+			if (key >= keys[child]) {
+				break;
+			}
+			keys[i] = keys[child];
+			items[i] = items[child];
+			i = child;
+		}
+		keys[i] = key;
+		items[i] = item;
+	}
+
+	/**
+	 * 标准指数分布的随机数
+	 *
+	 * @return
+	 */
+	private double exponential() {
+		// 1 - u落在(0, 1]区间, 避免ln(0)
+		return -Math.log(1 - RandomUtil.nextDouble(random()));
+	}
+
+	private Random random() {
+		return random != null ? random : RandomUtil.getRandom();
+	}
+
+	/**
+	 * 按字节逐行读取文件, 只有需要时才复制行的内容
+	 */
+	private static final class LineReader implements Closeable {
+
+		private final RandomAccessFile file;
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private byte[] line = new byte[256];
+		private int length;
+		private long position;
+
+		private LineReader(File file, long position) throws IOException {
+			this.file = new RandomAccessFile(file, "r");
+			this.channel = this.file.getChannel();
+			this.position = position;
+			((Buffer) buffer).limit(0);
+		}
+
+		/**
+		 * 读取一行
+		 *
+		 * @param keep
+		 *            是否保留行的内容
+		 * @return 已到文件末尾时返回false
+		 * @throws IOException
+		 */
+		private boolean next(boolean keep) throws IOException {
+			length = 0;
+			boolean found = false;
+			while (true) {
+				if (!buffer.hasRemaining() && !fill()) {
+					return found;
+				}
+				found = true;
+				byte[] array = buffer.array();
+				int begin = buffer.position();
+				int limit = buffer.limit();
+				int end = begin;
+				while (end < limit && array[end] != '\n') {
+					end++;
+				}
+				if (keep) {
+					append(array, begin, end - begin);
+				}
+				if (end < limit) {
+					((Buffer) buffer).position(end + 1);
+					position += end + 1 - begin;
+					return true;
+				}
+				((Buffer) buffer).position(limit);
+				position += limit - begin;
+			}
+		}
+
+		/**
+		 * 解码最近一次保留的行, 去掉行尾的'\r'
+		 *
+		 * @param charset
+		 *            字符集
+		 * @return
+		 */
+		private String line(Charset charset) {
+			int end = length > 0 && line[length - 1] == '\r' ? length - 1
+					: length;
+			return new String(line, 0, end, charset);
+		}
+
+		private void append(byte[] bytes, int offset, int count) {
+			if (length + count > line.length) {
+				line = Arrays.copyOf(line, Math.max(line.length * 2, length
+						+ count));
+			}
+			System.arraycopy(bytes, offset, line, length, count);
+			length += count;
+		}
+
+		private boolean fill() throws IOException {
+			((Buffer) buffer).clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				((Buffer) buffer).limit(0);
+				return false;
+			}
+			((Buffer) buffer).flip();
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			file.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,302 @@
+package com.bw.utils;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * 字符串相似度工具类
+ * <p>
+ * 编辑距离采用Myers位并行算法, 模式串不超过64个字符时每个文本字符只需若干次位运算;
+ * 更长的模式串回退到带提前终止的动态规划.
+ *
+ * @author Lychie Fan
+ */
+public class SimilarityUtil {
+
+	private static final int WORD_SIZE = 64;
+	private static final int LATIN_SIZE = 256;
+	private static final int WINKLER_PREFIX = 4;
+	private static final double WINKLER_SCALE = .1;
+
+	/**
+	 * 计算两个字符串的编辑距离(Levenshtein)
+	 *
+	 * @param a
+	 *            字符串
+	 * @param b
+	 *            字符串
+	 * @return
+	 */
+	public static int levenshtein(CharSequence a, CharSequence b) {
+		return levenshtein(a, b, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 计算两个字符串的编辑距离, 一旦确定距离超过上限即提前返回
+	 *
+	 * @param a
+	 *            字符串
+	 * @param b
+	 *            字符串
+	 * @param max
+	 *            距离上限, >= 0
+	 * @return 若距离超过上限, 则返回max + 1
+	 */
+	public static int levenshtein(CharSequence a, CharSequence b, int max) {
+		if (a.length() > b.length()) {
+			CharSequence t = a;
+			a = b;
+			b = t;
+		}
+		return compile(a).distance(b, max);
+	}
+
+	/**
+	 * 预编译模式串, 用于将同一个字符串与大量字符串比较
+	 *
+	 * @param pattern
+	 *            模式串
+	 * @return
+	 */
+	public static Query compile(CharSequence pattern) {
+		return new Query(pattern);
+	}
+
+	/**
+	 * 计算Jaro相似度
+	 *
+	 * @param a
+	 *            字符串
+	 * @param b
+	 *            字符串
+	 * @return [0, 1]区间的相似度, 1表示完全相同
+	 */
+	public static double jaro(CharSequence a, CharSequence b) {
+		int la = a.length(), lb = b.length();
+		if (la == 0 || lb == 0) {
+			return la == lb ? 1. : 0.;
+		}
+		int window = Math.max(Math.max(la, lb) / 2 - 1, 0);
+		boolean[] matchedA = new boolean[la];
+		boolean[] matchedB = new boolean[lb];
+		int matches = 0;
+		for (int i = 0; i < la; i++) {
+			char ch = a.charAt(i);
+			int end = Math.min(i + window + 1, lb);
+			for (int j = Math.max(0, i - window); j < end; j++) {
+				if (!matchedB[j] && b.charAt(j) == ch) {
+					matchedA[i] = matchedB[j] = true;
+					matches++;
+					break;
+				}
+			}
+		}
+		if (matches == 0) {
+			return 0.;
+		}
+		int transpositions = 0;
+		for (int i = 0, j = 0; i < la; i++) {
+			if (!matchedA[i]) {
+				continue;
+			}
+			while (!matchedB[j]) {
+				j++;
+			}
+			if (a.charAt(i) != b.charAt(j)) {
+				transpositions++;
+			}
+			j++;
+		}
+		double m = matches;
+		return (m / la + m / lb + (m - transpositions / 2.) / m) / 3;
+	}
+
+	/**
+	 * 计算Jaro-Winkler相似度, 对相同前缀给予额外加权
+	 *
+	 * @param a
+	 *            字符串
+	 * @param b
+	 *            字符串
+	 * @return [0, 1]区间的相似度, 1表示完全相同
+	 */
+	public static double jaroWinkler(CharSequence a, CharSequence b) {
+		double jaro = jaro(a, b);
+		int limit = Math.min(WINKLER_PREFIX, Math.min(a.length(), b.length()));
+		int prefix = 0;
+		while (prefix < limit && a.charAt(prefix) == b.charAt(prefix)) {
+			prefix++;
+		}
+		return jaro + prefix * WINKLER_SCALE * (1 - jaro);
+	}
+
+	/**
+	 * 动态规划计算编辑距离, 当某一行的最小值超过上限时提前终止
+	 *
+	 * @param a
+	 *            字符串
+	 * @param b
+	 *            字符串
+	 * @param max
+	 *            距离上限
+	 * @return 若距离超过上限, 则返回max + 1
+	 */
+	private static int dynamicDistance(CharSequence a, CharSequence b, int max) {
+		int la = a.length(), lb = b.length();
+		int[] prev = new int[lb + 1];
+		int[] curr = new int[lb + 1];
+		for (int j = 0; j <= lb; j++) {
+			prev[j] = j;
+		}
+		for (int i = 1; i <= la; i++) {
+			char ch = a.charAt(i - 1);
+			curr[0] = i;
+			int rowMin = i;
+			for (int j = 1; j <= lb; j++) {
+				int cost = ch == b.charAt(j - 1) ? 0 : 1;
+				int value = Math.min(Math.min(curr[j - 1], prev[j]) + 1,
+						prev[j - 1] + cost);
+				curr[j] = value;
+				if (value < rowMin) {
+					rowMin = value;
+				}
+			}
+			if (rowMin > max) {
+				return max + 1;
+			}
+			int[] t = prev;
+			prev = curr;
+			curr = t;
+		}
+		return prev[lb] <= max ? prev[lb] : max + 1;
+	}
+
+	/**
+	 * 预编译的模式串, 不可变且线程安全
+	 */
+	public static final class Query {
+
+		private final CharSequence pattern;
+		private final int length;
+		private final long last;
+		private final long[] latin;
+		private final char[] keys;
+		private final long[] masks;
+
+		private Query(CharSequence pattern) {
+			this.pattern = pattern;
+			this.length = pattern.length();
+			this.last = length == 0 ? 0 : 1L << (length - 1);
+			if (length > WORD_SIZE) {
+				this.latin = null;
+				this.keys = null;
+				this.masks = null;
+				return;
+			}
+			long[] latin = new long[LATIN_SIZE];
+			TreeMap<Character, Long> others = new TreeMap<Character, Long>();
+			for (int i = 0; i < length; i++) {
+				char ch = pattern.charAt(i);
+				if (ch < LATIN_SIZE) {
+					latin[ch] |= 1L << i;
+				} else {
+					Long mask = others.get(ch);
+					others.put(ch, (mask == null ? 0L : mask) | 1L << i);
+				}
+			}
+			this.latin = latin;
+			this.keys = new char[others.size()];
+			this.masks = new long[others.size()];
+			int index = 0;
+			for (Character key : others.keySet()) {
+				keys[index] = key;
+				masks[index++] = others.get(key);
+			}
+		}
+
+		/**
+		 * 模式串
+		 *
+		 * @return
+		 */
+		public CharSequence getPattern() {
+			return pattern;
+		}
+
+		/**
+		 * 计算模式串与文本的编辑距离
+		 *
+		 * @param text
+		 *            文本
+		 * @return
+		 */
+		public int distance(CharSequence text) {
+			return distance(text, Integer.MAX_VALUE);
+		}
+
+		/**
+		 * 计算模式串与文本的编辑距离, 一旦确定距离超过上限即提前返回
+		 *
+		 * @param text
+		 *            文本
+		 * @param max
+		 *            距离上限, >= 0
+		 * @return 若距离超过上限, 则返回max + 1
+		 */
+		public int distance(CharSequence text, int max) {
+			if (max < 0) {
+				throw new IllegalArgumentException(
+						"max must be greater than or equal 0");
+			}
+			int n = text.length();
+			if (Math.abs(length - n) > max) {
+				return max + 1;
+			}
+			if (length == 0) {
+				return n;
+			}
+			if (latin == null) {
+				return dynamicDistance(pattern, text, max);
+			}
+			long pv = -1L, mv = 0L;
+			int score = length;
+			for (int j = 0; j < n; j++) {
+				long eq = peq(text.charAt(j));
+				long xv = eq | mv;
+				long xh = (((eq & pv) + pv) ^ pv) | eq;
+				long ph = mv | ~(xh | pv);
+				long mh = pv & xh;
+				if ((ph & last) != 0) {
+					score++;
+				} else if ((mh & last) != 0) {
+					score--;
+				}
+				// 每列最多使距离减1, 剩余列不足以回到上限内即可终止
+				if (score - (n - j - 1) > max) {
+					return max + 1;
+				}
+				ph = (ph << 1) | 1L;
+				mh <<= 1;
+				pv = mh | ~(xv | ph);
+				mv = ph & xv;
+			}
+			return score <= max ? score : max + 1;
+		}
+
+		/**
+		 * 字符在模式串中出现位置的位掩码
+		 *
+		 * @param ch
+		 *            字符
+		 * @return
+		 */
+		private long peq(char ch) {
+			if (ch < LATIN_SIZE) {
+				return latin[ch];
+			}
+			int index = Arrays.binarySearch(keys, ch);
+			return index < 0 ? 0L : masks[index];
+		}
+
+	}
+
+}
@@ -0,0 +1,575 @@
+package com.bw.utils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 字符串分割器, 不可变且线程安全
+ * <p>
+ * 支持单字符、字符串、字符集三种分隔符, 以及去除首尾空白、忽略空串、限制分割数等选项.
+ * 除返回List/数组的方法外, 回调模式与游标模式只交出子串的起止索引, 不为每个子串创建对象.
+ *
+ * <pre>
+ * Splitter.on(',').trimResults().omitEmptyStrings().split(" a, ,b ") = [a, b]
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public final class Splitter {
+
+	private static final int INDEX_NOT_FOUND = -1;
+	private static final int NO_LIMIT = Integer.MAX_VALUE;
+	private static final int ASCII_SIZE = 128;
+
+	private final char separator;
+	private final String separatorString;
+	private final boolean[] asciiSet;
+	private final String charSet;
+	private final boolean trim;
+	private final boolean omitEmpty;
+	private final int limit;
+
+	private Splitter(char separator, String separatorString, boolean[] asciiSet,
+			String charSet, boolean trim, boolean omitEmpty, int limit) {
+		this.separator = separator;
+		this.separatorString = separatorString;
+		this.asciiSet = asciiSet;
+		this.charSet = charSet;
+		this.trim = trim;
+		this.omitEmpty = omitEmpty;
+		this.limit = limit;
+	}
+
+	/**
+	 * 以单个字符作为分隔符
+	 *
+	 * @param separator
+	 *            分隔符
+	 * @return
+	 */
+	public static Splitter on(char separator) {
+		return new Splitter(separator, null, null, null, false, false, NO_LIMIT);
+	}
+
+	/**
+	 * 以字符串作为分隔符
+	 *
+	 * @param separator
+	 *            分隔符, 不能为空串
+	 * @return
+	 */
+	public static Splitter on(String separator) {
+		if (StringUtil.isEmpty(separator)) {
+			throw new IllegalArgumentException("separator must not be empty");
+		}
+		if (separator.length() == 1) {
+			return on(separator.charAt(0));
+		}
+		return new Splitter('\0', separator, null, null, false, false, NO_LIMIT);
+	}
+
+	/**
+	 * 以字符集中的任一字符作为分隔符
+	 *
+	 * @param separators
+	 *            分隔字符集, 不能为空串
+	 * @return
+	 */
+	public static Splitter onAnyOf(String separators) {
+		if (StringUtil.isEmpty(separators)) {
+			throw new IllegalArgumentException("separators must not be empty");
+		}
+		boolean[] asciiSet = new boolean[ASCII_SIZE];
+		StringBuilder others = new StringBuilder();
+		for (int i = 0; i < separators.length(); i++) {
+			char ch = separators.charAt(i);
+			if (ch < ASCII_SIZE) {
+				asciiSet[ch] = true;
+			} else {
+				others.append(ch);
+			}
+		}
+		return new Splitter('\0', null, asciiSet, others.toString(), false,
+				false, NO_LIMIT);
+	}
+
+	/**
+	 * 去除每个子串的首尾空白字符
+	 *
+	 * @return 新的分割器
+	 */
+	public Splitter trimResults() {
+		return new Splitter(separator, separatorString, asciiSet, charSet,
+				true, omitEmpty, limit);
+	}
+
+	/**
+	 * 忽略空的子串
+	 *
+	 * @return 新的分割器
+	 */
+	public Splitter omitEmptyStrings() {
+		return new Splitter(separator, separatorString, asciiSet, charSet,
+				trim, true, limit);
+	}
+
+	/**
+	 * 限制子串的最大个数, 最后一个子串包含剩余的全部内容
+	 *
+	 * @param limit
+	 *            > 0
+	 * @return 新的分割器
+	 */
+	public Splitter limit(int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be greater than 0");
+		}
+		return new Splitter(separator, separatorString, asciiSet, charSet,
+				trim, omitEmpty, limit);
+	}
+
+	/**
+	 * 分割字符串
+	 *
+	 * @param source
+	 *            源字符串
+	 * @return 子串列表
+	 */
+	public List<String> split(CharSequence source) {
+		List<String> result = new ArrayList<String>();
+		Cursor cursor = cursor(source);
+		while (cursor.next()) {
+			result.add(cursor.token());
+		}
+		return result;
+	}
+
+	/**
+	 * 分割字符串
+	 *
+	 * @param source
+	 *            源字符串
+	 * @return 子串数组
+	 */
+	public String[] splitToArray(CharSequence source) {
+		List<String> result = split(source);
+		return result.toArray(new String[result.size()]);
+	}
+
+	/**
+	 * 分割字符串, 每得到一个子串回调一次, 不创建子串对象
+	 *
+	 * @param source
+	 *            源字符串
+	 * @param handler
+	 *            子串回调, 返回false时停止分割
+	 * @return 回调的次数
+	 */
+	public int split(CharSequence source, SliceHandler handler) {
+		Cursor cursor = cursor(source);
+		while (cursor.next()) {
+			if (!handler.onSlice(source, cursor.begin, cursor.end)) {
+				break;
+			}
+		}
+		return cursor.count;
+	}
+
+	/**
+	 * 获取分割游标, 游标可通过{@link Cursor#reset(CharSequence)}重复使用
+	 *
+	 * @param source
+	 *            源字符串
+	 * @return
+	 */
+	public Cursor cursor(CharSequence source) {
+		return new Cursor().reset(source);
+	}
+
+	/**
+	 * 将一行数值列直接分割解析到long数组, 列的划分与{@link #cursor(CharSequence)}相同,
+	 * 只创建一个游标, 不为各列创建对象. 未设置{@link #trimResults()}时, 列中的空白字符视为格式错误
+	 *
+	 * @param source
+	 *            源字符串
+	 * @param dest
+	 *            目标数组, 超出数组长度的列被忽略
+	 * @return 写入的个数
+	 */
+	public int splitToLongs(CharSequence source, long[] dest) {
+		Cursor cursor = cursor(source);
+		int count = 0;
+		while (count < dest.length && cursor.next()) {
+			dest[count++] = cursor.toLong();
+		}
+		return count;
+	}
+
+	/**
+	 * 将一行数值列直接分割解析到int数组, 列的划分与{@link #cursor(CharSequence)}相同,
+	 * 只创建一个游标, 不为各列创建对象. 未设置{@link #trimResults()}时, 列中的空白字符视为格式错误
+	 *
+	 * @param source
+	 *            源字符串
+	 * @param dest
+	 *            目标数组, 超出数组长度的列被忽略
+	 * @return 写入的个数
+	 */
+	public int splitToInts(CharSequence source, int[] dest) {
+		Cursor cursor = cursor(source);
+		int count = 0;
+		while (count < dest.length && cursor.next()) {
+			dest[count++] = cursor.toInt();
+		}
+		return count;
+	}
+
+	/**
+	 * 解析字符序列区间内的十进制整数
+	 *
+	 * @param source
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引
+	 * @return
+	 */
+	public static long parseLong(CharSequence source, int begin, int end) {
+		if (begin >= end) {
+			throw numberFormatException(source, begin, end);
+		}
+		boolean negative = false;
+		int i = begin;
+		char ch = source.charAt(i);
+		if (ch == '-' || ch == '+') {
+			negative = ch == '-';
+			if (++i == end) {
+				throw numberFormatException(source, begin, end);
+			}
+		}
+		// 以负数累加, 以便容纳Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multmin = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = source.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || result < multmin) {
+				throw numberFormatException(source, begin, end);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw numberFormatException(source, begin, end);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * 解析字符序列区间内的十进制整数
+	 *
+	 * @param source
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引
+	 * @return
+	 */
+	public static int parseInt(CharSequence source, int begin, int end) {
+		long value = parseLong(source, begin, end);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw numberFormatException(source, begin, end);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * 查找下一个分隔符的位置
+	 *
+	 * @param source
+	 *            源字符串
+	 * @param from
+	 *            开始查找的索引
+	 * @param length
+	 *            源字符串长度
+	 * @return 若找不到, 则返回-1
+	 */
+	private int indexOf(CharSequence source, int from, int length) {
+		if (separatorString != null) {
+			return indexOfString(source, from, length);
+		}
+		if (asciiSet != null) {
+			for (int i = from; i < length; i++) {
+				char ch = source.charAt(i);
+				if (ch < ASCII_SIZE ? asciiSet[ch] : charSet.indexOf(ch) >= 0) {
+					return i;
+				}
+			}
+			return INDEX_NOT_FOUND;
+		}
+		if (source instanceof String) {
+			return ((String) source).indexOf(separator, from);
+		}
+		for (int i = from; i < length; i++) {
+			if (source.charAt(i) == separator) {
+				return i;
+			}
+		}
+		return INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * 查找下一个字符串分隔符的位置
+	 *
+	 * @param source
+	 *            源字符串
+	 * @param from
+	 *            开始查找的索引
+	 * @param length
+	 *            源字符串长度
+	 * @return 若找不到, 则返回-1
+	 */
+	private int indexOfString(CharSequence source, int from, int length) {
+		if (source instanceof String) {
+			return ((String) source).indexOf(separatorString, from);
+		}
+		int separatorLength = separatorString.length();
+		char first = separatorString.charAt(0);
+		outer: for (int i = from, max = length - separatorLength; i <= max; i++) {
+			if (source.charAt(i) != first) {
+				continue;
+			}
+			for (int j = 1; j < separatorLength; j++) {
+				if (source.charAt(i + j) != separatorString.charAt(j)) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * 分隔符长度
+	 *
+	 * @return
+	 */
+	private int separatorLength() {
+		return separatorString == null ? 1 : separatorString.length();
+	}
+
+	/**
+	 * 跳过开头的空白字符
+	 *
+	 * @return 第一个非空白字符的索引
+	 */
+	private int trimStart(CharSequence source, int begin, int end, boolean trim) {
+		if (trim) {
+			while (begin < end && source.charAt(begin) <= ' ') {
+				begin++;
+			}
+		}
+		return begin;
+	}
+
+	/**
+	 * 跳过结尾的空白字符
+	 *
+	 * @return 最后一个非空白字符的后一个索引
+	 */
+	private int trimEnd(CharSequence source, int begin, int end, boolean trim) {
+		if (trim) {
+			while (end > begin && source.charAt(end - 1) <= ' ') {
+				end--;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * 数值格式异常
+	 *
+	 * @return
+	 */
+	private static NumberFormatException numberFormatException(
+			CharSequence source, int begin, int end) {
+		return new NumberFormatException("For input string: \""
+				+ source.subSequence(begin, end) + "\"");
+	}
+
+	/**
+	 * 子串回调
+	 */
+	public interface SliceHandler {
+
+		/**
+		 * 得到一个子串
+		 *
+		 * @param source
+		 *            源字符串
+		 * @param begin
+		 *            子串开始索引
+		 * @param end
+		 *            子串结束索引(不包含)
+		 * @return 是否继续分割
+		 */
+		boolean onSlice(CharSequence source, int begin, int end);
+
+	}
+
+	/**
+	 * 分割游标, 非线程安全, 每次{@link #next()}只移动索引, 不创建对象
+	 *
+	 * <pre>
+	 * Splitter.Cursor cursor = splitter.cursor(line);
+	 * while (cursor.next()) {
+	 * 	long value = cursor.toLong();
+	 * }
+	 * </pre>
+	 */
+	public final class Cursor {
+
+		private CharSequence source;
+		private int length;
+		private int position;
+		private int begin;
+		private int end;
+		private int count;
+
+		private Cursor() {
+		}
+
+		/**
+		 * 重置游标, 以分割新的字符串
+		 *
+		 * @param source
+		 *            源字符串
+		 * @return
+		 */
+		public Cursor reset(CharSequence source) {
+			this.source = source;
+			this.length = source.length();
+			this.position = 0;
+			this.begin = 0;
+			this.end = 0;
+			this.count = 0;
+			return this;
+		}
+
+		/**
+		 * 移动到下一个子串
+		 *
+		 * @return 若已无子串, 则返回false
+		 */
+		public boolean next() {
+			while (position <= length) {
+				int from = position;
+				int index;
+				if (count == limit - 1) {
+					if (omitEmpty) {
+						from = skipSeparators(from);
+					}
+					index = INDEX_NOT_FOUND;
+				} else {
+					index = indexOf(source, from, length);
+				}
+				int to = index == INDEX_NOT_FOUND ? length : index;
+				position = index == INDEX_NOT_FOUND ? length + 1 : index
+						+ separatorLength();
+				from = trimStart(source, from, to, trim);
+				to = trimEnd(source, from, to, trim);
+				if (from == to && omitEmpty) {
+					continue;
+				}
+				begin = from;
+				end = to;
+				count++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * 当前子串的开始索引
+		 *
+		 * @return
+		 */
+		public int begin() {
+			return begin;
+		}
+
+		/**
+		 * 当前子串的结束索引(不包含)
+		 *
+		 * @return
+		 */
+		public int end() {
+			return end;
+		}
+
+		/**
+		 * 已得到的子串个数
+		 *
+		 * @return
+		 */
+		public int count() {
+			return count;
+		}
+
+		/**
+		 * 当前子串
+		 *
+		 * @return
+		 */
+		public String token() {
+			return source.subSequence(begin, end).toString();
+		}
+
+		/**
+		 * 当前子串, 经由驻留池获取, 命中时不创建对象
+		 *
+		 * @param pool
+		 *            字符串驻留池
+		 * @return
+		 */
+		public String token(StringPool pool) {
+			return pool.intern(source, begin, end);
+		}
+
+		/**
+		 * 以十进制整数解析当前子串
+		 *
+		 * @return
+		 */
+		public long toLong() {
+			return parseLong(source, begin, end);
+		}
+
+		/**
+		 * 以十进制整数解析当前子串
+		 *
+		 * @return
+		 */
+		public int toInt() {
+			return parseInt(source, begin, end);
+		}
+
+		/**
+		 * 跳过连续的分隔符
+		 *
+		 * @param from
+		 *            开始索引
+		 * @return 第一个非分隔符的索引
+		 */
+		private int skipSeparators(int from) {
+			int separatorLength = separatorLength();
+			while (from < length && indexOf(source, from, length) == from) {
+				from += separatorLength;
+			}
+			return from;
+		}
+
+	}
+
+}
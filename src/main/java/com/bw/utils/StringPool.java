@@ -0,0 +1,351 @@
+package com.bw.utils;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界的并发字符串驻留池
+ * <p>
+ * 以内容哈希定位槽位, 相同内容的字符串收敛为同一个实例. 可直接从char[]、byte[]、
+ * CharSequence的区间驻留, 命中时不创建String对象. 池采用两路组相联结构, 每组按最近使用
+ * 淘汰, 容量固定不会无限增长.
+ * <p>
+ * 并发读写不加锁: 槽位的竞争写入最多导致某个条目被提前淘汰, 返回值的内容始终与参数一致.
+ * String的字段均为final, 即便经由数据竞争发布也是安全的.
+ *
+ * <pre>
+ * StringPool pool = new StringPool(4096);
+ * Splitter.Cursor cursor = splitter.cursor(line);
+ * while (cursor.next()) {
+ * 	String host = cursor.token(pool);
+ * }
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public final class StringPool {
+
+	private static final int WAYS = 2;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int ASCII_LIMIT = 0x80;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final String[] table;
+	private final int mask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * 创建驻留池
+	 *
+	 * @param capacity
+	 *            最多驻留的字符串个数, 向上取整为2的幂
+	 */
+	public StringPool(int capacity) {
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("capacity must be in (0, "
+					+ MAX_CAPACITY + "]");
+		}
+		int sets = Integer.highestOneBit(((capacity + WAYS - 1) / WAYS) * 2 - 1);
+		this.table = new String[sets * WAYS];
+		this.mask = sets - 1;
+	}
+
+	/**
+	 * 驻留字符串
+	 *
+	 * @param str
+	 *            字符串
+	 * @return 池中与参数内容相同的实例
+	 */
+	public String intern(String str) {
+		if (str == null) {
+			return null;
+		}
+		int index = indexFor(str.hashCode());
+		String first = table[index];
+		if (str.equals(first)) {
+			hits.increment();
+			return first;
+		}
+		String second = table[index + 1];
+		if (str.equals(second)) {
+			hits.increment();
+			promote(index, second, first);
+			return second;
+		}
+		misses.increment();
+		promote(index, str, first);
+		return str;
+	}
+
+	/**
+	 * 驻留字符序列的区间, 命中时不创建对象
+	 *
+	 * @param source
+	 *            字符序列
+	 * @param begin
+	 *            开始索引
+	 * @param end
+	 *            结束索引(不包含)
+	 * @return
+	 */
+	public String intern(CharSequence source, int begin, int end) {
+		int hash = 0;
+		for (int i = begin; i < end; i++) {
+			hash = 31 * hash + source.charAt(i);
+		}
+		int index = indexFor(hash);
+		String first = table[index];
+		if (matches(first, hash, source, begin, end)) {
+			hits.increment();
+			return first;
+		}
+		String second = table[index + 1];
+		if (matches(second, hash, source, begin, end)) {
+			hits.increment();
+			promote(index, second, first);
+			return second;
+		}
+		misses.increment();
+		String str = source.subSequence(begin, end).toString();
+		promote(index, str, first);
+		return str;
+	}
+
+	/**
+	 * 驻留字符数组的区间, 命中时不创建对象
+	 *
+	 * @param chars
+	 *            字符数组
+	 * @param offset
+	 *            开始索引
+	 * @param length
+	 *            长度
+	 * @return
+	 */
+	public String intern(char[] chars, int offset, int length) {
+		int end = offset + length;
+		int hash = 0;
+		for (int i = offset; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int index = indexFor(hash);
+		String first = table[index];
+		if (matches(first, hash, chars, offset, length)) {
+			hits.increment();
+			return first;
+		}
+		String second = table[index + 1];
+		if (matches(second, hash, chars, offset, length)) {
+			hits.increment();
+			promote(index, second, first);
+			return second;
+		}
+		misses.increment();
+		String str = new String(chars, offset, length);
+		promote(index, str, first);
+		return str;
+	}
+
+	/**
+	 * 驻留UTF-8编码的字节数组区间, 命中时不解码也不创建对象
+	 *
+	 * @param bytes
+	 *            字节数组
+	 * @param offset
+	 *            开始索引
+	 * @param length
+	 *            长度
+	 * @return
+	 */
+	public String intern(byte[] bytes, int offset, int length) {
+		return intern(bytes, offset, length, UTF_8);
+	}
+
+	/**
+	 * 驻留字节数组区间. 内容为纯ASCII且字符集兼容ASCII时, 直接逐字节比较; 否则先解码再驻留
+	 *
+	 * @param bytes
+	 *            字节数组
+	 * @param offset
+	 *            开始索引
+	 * @param length
+	 *            长度
+	 * @param charset
+	 *            字符集编码
+	 * @return
+	 */
+	public String intern(byte[] bytes, int offset, int length, Charset charset) {
+		int end = offset + length;
+		int hash = 0;
+		int ascii = 0;
+		for (int i = offset; i < end; i++) {
+			ascii |= bytes[i];
+			hash = 31 * hash + bytes[i];
+		}
+		if ((ascii & ASCII_LIMIT) != 0 || !isAsciiCompatible(charset)) {
+			return intern(new String(bytes, offset, length, charset));
+		}
+		int index = indexFor(hash);
+		String first = table[index];
+		if (matches(first, hash, bytes, offset, length)) {
+			hits.increment();
+			return first;
+		}
+		String second = table[index + 1];
+		if (matches(second, hash, bytes, offset, length)) {
+			hits.increment();
+			promote(index, second, first);
+			return second;
+		}
+		misses.increment();
+		String str = new String(bytes, offset, length, charset);
+		promote(index, str, first);
+		return str;
+	}
+
+	/**
+	 * 命中次数
+	 *
+	 * @return
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * 未命中次数
+	 *
+	 * @return
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * 命中率
+	 *
+	 * @return 若尚未驻留过任何字符串, 则返回0
+	 */
+	public double getHitRate() {
+		long hit = hits.sum();
+		long total = hit + misses.sum();
+		return total == 0 ? 0. : (double) hit / total;
+	}
+
+	/**
+	 * 池的容量
+	 *
+	 * @return
+	 */
+	public int capacity() {
+		return table.length;
+	}
+
+	/**
+	 * 清空池及统计数据
+	 */
+	public void clear() {
+		Arrays.fill(table, null);
+		hits.reset();
+		misses.reset();
+	}
+
+	/**
+	 * 哈希值对应组的首个槽位
+	 *
+	 * @param hash
+	 *            哈希值
+	 * @return
+	 */
+	private int indexFor(int hash) {
+		hash ^= hash >>> 16;
+		return (hash & mask) * WAYS;
+	}
+
+	/**
+	 * 将最近使用的字符串放到组的首位, 原首位降为次位
+	 *
+	 * @param index
+	 *            组的首个槽位
+	 * @param recent
+	 *            最近使用的字符串
+	 * @param first
+	 *            原首位字符串
+	 */
+	private void promote(int index, String recent, String first) {
+		table[index] = recent;
+		if (first != null && first != recent) {
+			table[index + 1] = first;
+		}
+	}
+
+	/**
+	 * 字符集是否兼容ASCII
+	 *
+	 * @param charset
+	 *            字符集编码
+	 * @return
+	 */
+	private static boolean isAsciiCompatible(Charset charset) {
+		String name = charset.name();
+		return "UTF-8".equals(name) || "US-ASCII".equals(name)
+				|| "ISO-8859-1".equals(name);
+	}
+
+	/**
+	 * 池中字符串与字符序列区间的内容是否相同
+	 *
+	 * @return
+	 */
+	private static boolean matches(String str, int hash, CharSequence source,
+			int begin, int end) {
+		if (str == null || str.length() != end - begin || str.hashCode() != hash) {
+			return false;
+		}
+		for (int i = begin, j = 0; i < end; i++, j++) {
+			if (str.charAt(j) != source.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 池中字符串与字符数组区间的内容是否相同
+	 *
+	 * @return
+	 */
+	private static boolean matches(String str, int hash, char[] chars,
+			int offset, int length) {
+		if (str == null || str.length() != length || str.hashCode() != hash) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (str.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 池中字符串与字节数组区间的内容是否相同
+	 *
+	 * @return
+	 */
+	private static boolean matches(String str, int hash, byte[] bytes,
+			int offset, int length) {
+		if (str == null || str.length() != length || str.hashCode() != hash) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (str.charAt(i) != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
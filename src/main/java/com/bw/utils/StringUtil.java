@@ -169,12 +169,7 @@ public class StringUtil {
 	 * @return
 	 */
 	public static String toCapitalize(String str) {
-		byte[] bytes = str.getBytes();
-		byte e = bytes[0];
-		if(e >= 'a' && e <= 'z'){
-			bytes[0] -= 32;
-		}
-		return new String(bytes);
+		return CaseUtil.capitalize(str);
 	}
 
 	/**
@@ -185,12 +180,7 @@ public class StringUtil {
 	 * @return
 	 */
 	public static String toUncapitalize(String str) {
-		byte[] bytes = str.getBytes();
-		byte e = bytes[0];
-		if(e >= 'A' && e <= 'Z'){
-			bytes[0] += 32;
-		}
-		return new String(bytes);
+		return CaseUtil.uncapitalize(str);
 	}
 
 	/**
@@ -0,0 +1,796 @@
+package com.bw.utils;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 时间分桶与窗口聚合工具类
+ * <p>
+ * 按分钟、小时、天、周(周一开始)、月、年把毫秒时间戳划入时区中的日历区间, 天及以上的区间按当地日历计算,
+ * 夏令时切换当天的长度随之变化. 聚合只使用基本类型数组累加, 值为{@link Long#MIN_VALUE}的时间戳
+ * (即{@link DateCaseUtil#parseAll(String[], String, java.util.BitSet)}解析失败的位置)被跳过.
+ *
+ * <pre>
+ * TimeBucketUtil.Aggregate hourly = TimeBucketUtil.aggregate(times, values, ChronoUnit.HOURS, zone, true);
+ * TimeBucketUtil.Aggregate last24h = hourly.slide(24);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class TimeBucketUtil {
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+	private static final long MILLIS_PER_DAY = DateCaseUtil.MILLIS_PER_DAY;
+	private static final long DAYS_PER_WEEK = 7L;
+	private static final int MONDAY_OFFSET = 3;
+	private static final int MIN_CHUNK = 1 << 16;
+	private static final long INVALID = DateCaseUtil.INVALID;
+
+	/**
+	 * 时间戳在默认时区中所在区间的开始时刻
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param unit
+	 *            区间单位
+	 * @return
+	 */
+	public static long floor(long millis, ChronoUnit unit) {
+		return floor(millis, unit, DateCaseUtil.LOCAL_ZONE);
+	}
+
+	/**
+	 * 时间戳在时区中所在区间的开始时刻. 分钟、小时按当地时间对齐; 夏令时只差半小时的时区(如Lord Howe)
+	 * 在切换前后的小时区间可能不连续
+	 *
+	 * @param millis
+	 *            毫秒时间戳
+	 * @param unit
+	 *            区间单位, 支持MILLIS至YEARS(不含DECADES等更大单位)
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static long floor(long millis, ChronoUnit unit, TimeZone zone) {
+		switch (unit) {
+		case MILLIS:
+			return millis;
+		case SECONDS:
+			return millis - Math.floorMod(millis, MILLIS_PER_SECOND);
+		case MINUTES:
+		case HOURS:
+		case HALF_DAYS:
+			long local = millis + zone.getOffset(millis);
+			return millis - Math.floorMod(local, unit.getDuration().toMillis());
+		default:
+			return fromOrdinal(toOrdinal(millis, unit, zone), unit, zone);
+		}
+	}
+
+	/**
+	 * 区间向前或向后移动若干个单位
+	 *
+	 * @param bucket
+	 *            区间的开始时刻
+	 * @param unit
+	 *            区间单位
+	 * @param amount
+	 *            移动的区间个数, 可以为负
+	 * @param zone
+	 *            时区
+	 * @return 移动后区间的开始时刻
+	 */
+	public static long shift(long bucket, ChronoUnit unit, long amount,
+			TimeZone zone) {
+		switch (unit) {
+		case MILLIS:
+		case SECONDS:
+			return bucket + amount * unit.getDuration().toMillis();
+		case MINUTES:
+		case HOURS:
+		case HALF_DAYS:
+			// 偏移变化可能使区间不再对齐, 重新取整
+			return floor(bucket + amount * unit.getDuration().toMillis(),
+					unit, zone);
+		default:
+			return fromOrdinal(toOrdinal(bucket, unit, zone) + amount, unit,
+					zone);
+		}
+	}
+
+	/**
+	 * 批量计算时间戳所在区间的开始时刻. 相邻时间戳落在同一区间时不再重复计算, 有序输入几乎没有额外开销
+	 *
+	 * @param timestamps
+	 *            毫秒时间戳数组
+	 * @param unit
+	 *            区间单位
+	 * @param zone
+	 *            时区
+	 * @return 与参数一一对应的区间开始时刻, 无效的时间戳原样保留
+	 */
+	public static long[] floorAll(long[] timestamps, ChronoUnit unit,
+			TimeZone zone) {
+		long[] result = new long[timestamps.length];
+		long start = Long.MAX_VALUE, end = Long.MIN_VALUE;
+		for (int i = 0; i < timestamps.length; i++) {
+			long millis = timestamps[i];
+			if (millis == INVALID) {
+				result[i] = INVALID;
+				continue;
+			}
+			if (millis < start || millis >= end) {
+				start = floor(millis, unit, zone);
+				end = shift(start, unit, 1, zone);
+			}
+			result[i] = start;
+		}
+		return result;
+	}
+
+	/**
+	 * 按区间计数
+	 *
+	 * @param timestamps
+	 *            毫秒时间戳数组
+	 * @param unit
+	 *            区间单位
+	 * @param zone
+	 *            时区
+	 * @return 按区间开始时刻升序排列的聚合结果
+	 */
+	public static Aggregate count(long[] timestamps, ChronoUnit unit,
+			TimeZone zone) {
+		return aggregate(timestamps, null, unit, zone, false);
+	}
+
+	/**
+	 * 按区间聚合数值(计数、求和、最小值、最大值)
+	 *
+	 * @param timestamps
+	 *            毫秒时间戳数组
+	 * @param values
+	 *            与时间戳一一对应的数值
+	 * @param unit
+	 *            区间单位
+	 * @param zone
+	 *            时区
+	 * @return 按区间开始时刻升序排列的聚合结果
+	 */
+	public static Aggregate aggregate(long[] timestamps, double[] values,
+			ChronoUnit unit, TimeZone zone) {
+		return aggregate(timestamps, values, unit, zone, false);
+	}
+
+	/**
+	 * 按区间聚合数值, 可将数组分块后并行聚合再合并
+	 *
+	 * @param timestamps
+	 *            毫秒时间戳数组
+	 * @param values
+	 *            与时间戳一一对应的数值, 为null时只计数
+	 * @param unit
+	 *            区间单位
+	 * @param zone
+	 *            时区
+	 * @param parallel
+	 *            是否并行聚合
+	 * @return 按区间开始时刻升序排列的聚合结果
+	 */
+	public static Aggregate aggregate(final long[] timestamps,
+			final double[] values, final ChronoUnit unit, final TimeZone zone,
+			boolean parallel) {
+		if (values != null && values.length != timestamps.length) {
+			throw new IllegalArgumentException(
+					"values must be the same length as timestamps");
+		}
+		final int length = timestamps.length;
+		final int chunks = parallel ? Math.max(1, Math.min(length / MIN_CHUNK,
+				ForkJoinPool.getCommonPoolParallelism() * 4)) : 1;
+		IntStream indexes = IntStream.range(0, chunks);
+		if (parallel) {
+			indexes = indexes.parallel();
+		}
+		return indexes.mapToObj(chunk -> {
+			Aggregator aggregator = new Aggregator(unit, zone);
+			int from = (int) ((long) length * chunk / chunks);
+			int to = (int) ((long) length * (chunk + 1) / chunks);
+			aggregator.addAll(timestamps, values, from, to);
+			return aggregator;
+		}).reduce((a, b) -> {
+			a.merge(b);
+			return a;
+		}).get().result();
+	}
+
+	/**
+	 * 创建流式聚合器, 用于持续到达的无界数据
+	 *
+	 * @param unit
+	 *            区间单位
+	 * @param zone
+	 *            时区
+	 * @return
+	 */
+	public static Aggregator newAggregator(ChronoUnit unit, TimeZone zone) {
+		return new Aggregator(unit, zone);
+	}
+
+	/**
+	 * 时间戳所在区间的序号. 天以上的区间以当地日历计算
+	 *
+	 * @return
+	 */
+	private static long toOrdinal(long millis, ChronoUnit unit, TimeZone zone) {
+		long epochDay = Math.floorDiv(millis + zone.getOffset(millis),
+				MILLIS_PER_DAY);
+		switch (unit) {
+		case DAYS:
+			return epochDay;
+		case WEEKS:
+			// 1970-01-01是周四, 向后平移3天使周一成为每周的第一天
+			return Math.floorDiv(epochDay + MONDAY_OFFSET, DAYS_PER_WEEK);
+		case MONTHS:
+			return DateCaseUtil.toEpochMonth(epochDay);
+		case YEARS:
+			return Math.floorDiv(DateCaseUtil.toEpochMonth(epochDay), 12L);
+		default:
+			throw new IllegalArgumentException("Unsupported unit: " + unit);
+		}
+	}
+
+	/**
+	 * 区间序号对应的开始时刻
+	 *
+	 * @return
+	 */
+	private static long fromOrdinal(long ordinal, ChronoUnit unit,
+			TimeZone zone) {
+		long epochDay;
+		switch (unit) {
+		case DAYS:
+			epochDay = ordinal;
+			break;
+		case WEEKS:
+			epochDay = ordinal * DAYS_PER_WEEK - MONDAY_OFFSET;
+			break;
+		case MONTHS:
+			epochDay = DateCaseUtil.epochMonthToEpochDay(ordinal);
+			break;
+		case YEARS:
+			epochDay = DateCaseUtil.epochMonthToEpochDay(ordinal * 12);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported unit: " + unit);
+		}
+		return DateCaseUtil.localToUtc(zone, epochDay * MILLIS_PER_DAY);
+	}
+
+	/**
+	 * 按区间开始时刻升序排列的聚合结果, 不可变
+	 * <p>
+	 * 只计数时, 求和为0, 最小值与最大值为NaN
+	 */
+	public static final class Aggregate {
+
+		private final ChronoUnit unit;
+		private final TimeZone zone;
+		private final long[] starts;
+		private final long[] counts;
+		private final double[] sums;
+		private final double[] mins;
+		private final double[] maxs;
+
+		private Aggregate(ChronoUnit unit, TimeZone zone, long[] starts,
+				long[] counts, double[] sums, double[] mins, double[] maxs) {
+			this.unit = unit;
+			this.zone = zone;
+			this.starts = starts;
+			this.counts = counts;
+			this.sums = sums;
+			this.mins = mins;
+			this.maxs = maxs;
+		}
+
+		/**
+		 * 区间个数
+		 *
+		 * @return
+		 */
+		public int size() {
+			return starts.length;
+		}
+
+		/**
+		 * 区间的开始时刻
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public long getStart(int index) {
+			return starts[index];
+		}
+
+		/**
+		 * 区间的结束时刻(不包含)
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public long getEnd(int index) {
+			return shift(starts[index], unit, 1, zone);
+		}
+
+		/**
+		 * 区间内的时间戳个数
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public long getCount(int index) {
+			return counts[index];
+		}
+
+		/**
+		 * 区间内数值的和
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public double getSum(int index) {
+			return sums[index];
+		}
+
+		/**
+		 * 区间内数值的最小值
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public double getMin(int index) {
+			return mins[index];
+		}
+
+		/**
+		 * 区间内数值的最大值
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public double getMax(int index) {
+			return maxs[index];
+		}
+
+		/**
+		 * 区间内数值的平均值
+		 *
+		 * @param index
+		 *            区间索引
+		 * @return
+		 */
+		public double getMean(int index) {
+			return sums[index] / counts[index];
+		}
+
+		/**
+		 * 全部区间的开始时刻
+		 *
+		 * @return
+		 */
+		public long[] getStarts() {
+			return starts.clone();
+		}
+
+		/**
+		 * 全部区间的计数
+		 *
+		 * @return
+		 */
+		public long[] getCounts() {
+			return counts.clone();
+		}
+
+		/**
+		 * 全部区间的和
+		 *
+		 * @return
+		 */
+		public double[] getSums() {
+			return sums.clone();
+		}
+
+		/**
+		 * 滑动窗口聚合: 对每个区间, 聚合以它结尾的连续width个区间(缺失的区间视为空)
+		 *
+		 * @param width
+		 *            窗口包含的区间个数
+		 * @return 与本结果区间一一对应的窗口聚合结果, 区间开始时刻为窗口的最后一个区间
+		 */
+		public Aggregate slide(int width) {
+			if (width <= 0) {
+				throw new IllegalArgumentException("width must be greater than 0");
+			}
+			int size = starts.length;
+			long[] windowCounts = new long[size];
+			double[] windowSums = new double[size];
+			double[] windowMins = new double[size];
+			double[] windowMaxs = new double[size];
+			// 单调队列维护窗口内最小值与最大值的索引
+			int[] minQueue = new int[size], maxQueue = new int[size];
+			int minHead = 0, minTail = 0, maxHead = 0, maxTail = 0;
+			long count = 0;
+			double sum = 0;
+			for (int i = 0, left = 0; i < size; i++) {
+				long lower = shift(starts[i], unit, 1 - width, zone);
+				for (; starts[left] < lower; left++) {
+					count -= counts[left];
+					sum -= sums[left];
+				}
+				count += counts[i];
+				sum += sums[i];
+				if (!Double.isNaN(mins[i])) {
+					while (minTail > minHead && mins[minQueue[minTail - 1]] >= mins[i]) {
+						minTail--;
+					}
+					minQueue[minTail++] = i;
+					while (maxTail > maxHead && maxs[maxQueue[maxTail - 1]] <= maxs[i]) {
+						maxTail--;
+					}
+					maxQueue[maxTail++] = i;
+				}
+				while (minHead < minTail && minQueue[minHead] < left) {
+					minHead++;
+				}
+				while (maxHead < maxTail && maxQueue[maxHead] < left) {
+					maxHead++;
+				}
+				windowCounts[i] = count;
+				windowSums[i] = sum;
+				windowMins[i] = minHead < minTail ? mins[minQueue[minHead]]
+						: Double.NaN;
+				windowMaxs[i] = maxHead < maxTail ? maxs[maxQueue[maxHead]]
+						: Double.NaN;
+			}
+			return new Aggregate(unit, zone, starts, windowCounts, windowSums,
+					windowMins, windowMaxs);
+		}
+
+	}
+
+	/**
+	 * 流式聚合器, 以开放寻址的哈希表按区间累加, 非线程安全
+	 * <p>
+	 * 数据无界时, 可定期以水位线调用{@link #drain(long)}取出已结束的区间并释放内存;
+	 * 并行场景下各线程使用独立的聚合器, 最后以{@link #merge(Aggregator)}合并.
+	 */
+	public static final class Aggregator {
+
+		private static final int INITIAL_CAPACITY = 16;
+		private static final long EMPTY = Long.MIN_VALUE;
+
+		private final ChronoUnit unit;
+		private final TimeZone zone;
+		private long[] keys;
+		private long[] counts;
+		private double[] sums;
+		private double[] mins;
+		private double[] maxs;
+		private int size;
+		private long lastStart = Long.MAX_VALUE;
+		private long lastEnd = Long.MIN_VALUE;
+		private int lastSlot;
+
+		private Aggregator(ChronoUnit unit, TimeZone zone) {
+			// 不支持的单位在此抛出异常
+			floor(0, unit, zone);
+			this.unit = unit;
+			this.zone = zone;
+			allocate(INITIAL_CAPACITY);
+		}
+
+		/**
+		 * 累加一个时间戳(只计数)
+		 *
+		 * @param millis
+		 *            毫秒时间戳
+		 */
+		public void add(long millis) {
+			if (millis != INVALID) {
+				// 先取槽位, 扩容会替换数组
+				int slot = slot(millis);
+				counts[slot]++;
+			}
+		}
+
+		/**
+		 * 累加一个带数值的时间戳
+		 *
+		 * @param millis
+		 *            毫秒时间戳
+		 * @param value
+		 *            数值
+		 */
+		public void add(long millis, double value) {
+			if (millis != INVALID) {
+				accumulate(slot(millis), 1, value, value, value);
+			}
+		}
+
+		/**
+		 * 累加数组区间内的时间戳
+		 *
+		 * @param timestamps
+		 *            毫秒时间戳数组
+		 * @param values
+		 *            与时间戳一一对应的数值, 为null时只计数
+		 * @param from
+		 *            开始索引
+		 * @param to
+		 *            结束索引(不包含)
+		 */
+		public void addAll(long[] timestamps, double[] values, int from, int to) {
+			for (int i = from; i < to; i++) {
+				if (values == null) {
+					add(timestamps[i]);
+				} else {
+					add(timestamps[i], values[i]);
+				}
+			}
+		}
+
+		/**
+		 * 合并另一个聚合器的结果
+		 *
+		 * @param other
+		 *            区间单位与时区相同的聚合器
+		 */
+		public void merge(Aggregator other) {
+			if (other.unit != unit || !other.zone.hasSameRules(zone)) {
+				throw new IllegalArgumentException(
+						"aggregators must have the same unit and zone");
+			}
+			for (int i = 0; i < other.keys.length; i++) {
+				if (other.keys[i] != EMPTY) {
+					accumulate(insert(other.keys[i]), other.counts[i],
+							other.sums[i], other.mins[i], other.maxs[i]);
+				}
+			}
+		}
+
+		/**
+		 * 已累加的区间个数
+		 *
+		 * @return
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * 当前的聚合结果, 不改变聚合器
+		 *
+		 * @return 按区间开始时刻升序排列的聚合结果
+		 */
+		public Aggregate result() {
+			return collect(Long.MAX_VALUE, false);
+		}
+
+		/**
+		 * 取出结束时刻不晚于水位线的区间, 并从聚合器中移除
+		 *
+		 * @param watermark
+		 *            水位线, 此后不会再有更早的时间戳到达
+		 * @return 按区间开始时刻升序排列的已结束区间
+		 */
+		public Aggregate drain(long watermark) {
+			return collect(watermark, true);
+		}
+
+		/**
+		 * 收集结束时刻不晚于水位线的区间
+		 *
+		 * @param watermark
+		 *            水位线
+		 * @param remove
+		 *            是否从聚合器中移除
+		 * @return
+		 */
+		private Aggregate collect(long watermark, boolean remove) {
+			long[] starts = new long[size];
+			int length = 0;
+			for (long key : keys) {
+				if (key != EMPTY
+						&& (watermark == Long.MAX_VALUE || shift(key, unit, 1,
+								zone) <= watermark)) {
+					starts[length++] = key;
+				}
+			}
+			starts = Arrays.copyOf(starts, length);
+			Arrays.sort(starts);
+			long[] resultCounts = new long[length];
+			double[] resultSums = new double[length];
+			double[] resultMins = new double[length];
+			double[] resultMaxs = new double[length];
+			for (int i = 0; i < length; i++) {
+				int slot = find(starts[i]);
+				resultCounts[i] = counts[slot];
+				resultSums[i] = sums[slot];
+				resultMins[i] = mins[slot];
+				resultMaxs[i] = maxs[slot];
+			}
+			if (remove && length > 0) {
+				rebuild(starts);
+			}
+			return new Aggregate(unit, zone, starts, resultCounts, resultSums,
+					resultMins, resultMaxs);
+		}
+
+		/**
+		 * 时间戳所在区间的槽位, 与上一个时间戳在同一区间时直接复用
+		 *
+		 * @param millis
+		 *            毫秒时间戳
+		 * @return
+		 */
+		private int slot(long millis) {
+			if (millis >= lastStart && millis < lastEnd) {
+				return lastSlot;
+			}
+			long start = floor(millis, unit, zone);
+			int slot = insert(start);
+			lastStart = start;
+			lastEnd = shift(start, unit, 1, zone);
+			lastSlot = slot;
+			return slot;
+		}
+
+		/**
+		 * 累加到槽位
+		 */
+		private void accumulate(int slot, long count, double sum, double min,
+				double max) {
+			counts[slot] += count;
+			sums[slot] += sum;
+			if (Double.isNaN(min)) {
+				return;
+			}
+			if (!(mins[slot] <= min)) {
+				mins[slot] = min;
+			}
+			if (!(maxs[slot] >= max)) {
+				maxs[slot] = max;
+			}
+		}
+
+		/**
+		 * 查找区间的槽位, 不存在时插入
+		 *
+		 * @param key
+		 *            区间开始时刻
+		 * @return
+		 */
+		private int insert(long key) {
+			if ((size + 1) * 2 > keys.length) {
+				resize(keys.length * 2);
+			}
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+			while (keys[slot] != EMPTY) {
+				if (keys[slot] == key) {
+					return slot;
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			size++;
+			return slot;
+		}
+
+		/**
+		 * 查找已存在区间的槽位
+		 *
+		 * @param key
+		 *            区间开始时刻
+		 * @return
+		 */
+		private int find(long key) {
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+			while (keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		/**
+		 * 移除指定区间后重建哈希表
+		 *
+		 * @param removed
+		 *            升序排列的待移除区间
+		 */
+		private void rebuild(long[] removed) {
+			long[] oldKeys = keys;
+			long[] oldCounts = counts;
+			double[] oldSums = sums, oldMins = mins, oldMaxs = maxs;
+			int capacity = INITIAL_CAPACITY;
+			while (capacity < (size - removed.length) * 2) {
+				capacity <<= 1;
+			}
+			allocate(capacity);
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != EMPTY
+						&& Arrays.binarySearch(removed, oldKeys[i]) < 0) {
+					int slot = insert(oldKeys[i]);
+					counts[slot] = oldCounts[i];
+					sums[slot] = oldSums[i];
+					mins[slot] = oldMins[i];
+					maxs[slot] = oldMaxs[i];
+				}
+			}
+		}
+
+		/**
+		 * 扩容
+		 *
+		 * @param capacity
+		 *            新容量, 2的幂
+		 */
+		private void resize(int capacity) {
+			long[] oldKeys = keys;
+			long[] oldCounts = counts;
+			double[] oldSums = sums, oldMins = mins, oldMaxs = maxs;
+			allocate(capacity);
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != EMPTY) {
+					int slot = insert(oldKeys[i]);
+					counts[slot] = oldCounts[i];
+					sums[slot] = oldSums[i];
+					mins[slot] = oldMins[i];
+					maxs[slot] = oldMaxs[i];
+				}
+			}
+		}
+
+		/**
+		 * 分配空的哈希表, 并使区间缓存失效
+		 *
+		 * @param capacity
+		 *            容量, 2的幂
+		 */
+		private void allocate(int capacity) {
+			keys = new long[capacity];
+			Arrays.fill(keys, EMPTY);
+			counts = new long[capacity];
+			sums = new double[capacity];
+			mins = new double[capacity];
+			maxs = new double[capacity];
+			Arrays.fill(mins, Double.NaN);
+			Arrays.fill(maxs, Double.NaN);
+			size = 0;
+			lastStart = Long.MAX_VALUE;
+			lastEnd = Long.MIN_VALUE;
+		}
+
+		/**
+		 * 区间开始时刻的哈希值
+		 *
+		 * @param key
+		 *            区间开始时刻
+		 * @return
+		 */
+		private static int hash(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+
+	}
+
+}
@@ -0,0 +1,486 @@
+package com.bw.utils;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 随机令牌与UUID生成器
+ * <p>
+ * 字母表长度为n时, 每个字符取ceil(log2(n))位, 一次64位随机数可以产生多个字符(如字母数字10个、十六进制16个),
+ * 落在字母表之外的取值直接丢弃, 因此各字符等概率. 实例不可变, 可被多个线程共享; 可以写入调用方提供的
+ * char[]或byte[], 不产生任何对象. 默认使用{@link RandomUtil#getRandom()}, 不适合作为安全凭证,
+ * 需要时传入SecureRandom.
+ *
+ * <pre>
+ * String token = TokenGenerator.ALPHANUMERIC.next(32);
+ * char[] buffer = new char[36];
+ * TokenGenerator.randomUUID(buffer, 0);
+ * UUID id = TokenGenerator.timeOrderedUUID();
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class TokenGenerator {
+
+	/**
+	 * 数字与大小写字母
+	 */
+	public static final TokenGenerator ALPHANUMERIC = new TokenGenerator(
+			"0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+	/**
+	 * 小写十六进制
+	 */
+	public static final TokenGenerator HEX = new TokenGenerator(
+			"0123456789abcdef");
+	/**
+	 * URL安全的Base64字母表
+	 */
+	public static final TokenGenerator BASE64URL = new TokenGenerator(
+			"ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_");
+
+	private static final int UUID_LENGTH = 36;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final AtomicLong LAST_TIME_ORDERED = new AtomicLong();
+
+	private final char[] alphabet;
+	private final byte[] bytes;
+	private final int bits;
+	private final int mask;
+	private final int perDraw;
+
+	/**
+	 * 以字母表创建生成器
+	 *
+	 * @param alphabet
+	 *            字母表, 2至65536个互不相同的字符
+	 */
+	public TokenGenerator(String alphabet) {
+		if (alphabet == null || alphabet.length() < 2
+				|| alphabet.length() > 1 << 16) {
+			throw new IllegalArgumentException(
+					"alphabet length must be between 2 and 65536");
+		}
+		if (alphabet.chars().distinct().count() != alphabet.length()) {
+			throw new IllegalArgumentException(
+					"alphabet must not contain duplicate characters");
+		}
+		this.alphabet = alphabet.toCharArray();
+		this.bits = 32 - Integer.numberOfLeadingZeros(alphabet.length() - 1);
+		this.mask = (1 << bits) - 1;
+		this.perDraw = 64 / bits;
+		boolean ascii = alphabet.chars().allMatch(c -> c < 128);
+		this.bytes = ascii ? alphabet.getBytes(StandardCharsets.US_ASCII)
+				: null;
+	}
+
+	/**
+	 * 字母表
+	 *
+	 * @return
+	 */
+	public String getAlphabet() {
+		return new String(alphabet);
+	}
+
+	/**
+	 * 字母表是否全部是ASCII字符, 即能否写入byte[]
+	 *
+	 * @return
+	 */
+	boolean isAscii() {
+		return bytes != null;
+	}
+
+	/**
+	 * 产生指定长度的令牌
+	 *
+	 * @param length
+	 *            长度
+	 * @return
+	 */
+	public String next(int length) {
+		return next(length, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 产生指定长度的令牌
+	 *
+	 * @param length
+	 *            长度
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	public String next(int length, Random random) {
+		if (length < 0) {
+			throw new IllegalArgumentException(
+					"length must be greater than or equal 0");
+		}
+		char[] token = new char[length];
+		fill(token, 0, length, random);
+		return new String(token);
+	}
+
+	/**
+	 * 把令牌写入buffer的[offset, offset + length)区间, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param length
+	 *            长度
+	 */
+	public void fill(char[] buffer, int offset, int length) {
+		fill(buffer, offset, length, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 把令牌写入buffer的[offset, offset + length)区间, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param length
+	 *            长度
+	 * @param random
+	 *            随机数生成器
+	 */
+	public void fill(char[] buffer, int offset, int length, Random random) {
+		checkRange(buffer.length, offset, length);
+		int end = offset + length;
+		int i = offset;
+		while (i < end) {
+			long draw = random.nextLong();
+			for (int n = perDraw; n > 0 && i < end; n--, draw >>>= bits) {
+				int index = (int) draw & mask;
+				if (index < alphabet.length) {
+					buffer[i++] = alphabet[index];
+				}
+			}
+		}
+	}
+
+	/**
+	 * 以ASCII字节把令牌写入buffer的[offset, offset + length)区间, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param length
+	 *            长度
+	 */
+	public void fill(byte[] buffer, int offset, int length) {
+		fill(buffer, offset, length, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 以ASCII字节把令牌写入buffer的[offset, offset + length)区间, 不产生对象.
+	 * 字母表须全部是ASCII字符
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param length
+	 *            长度
+	 * @param random
+	 *            随机数生成器
+	 */
+	public void fill(byte[] buffer, int offset, int length, Random random) {
+		if (bytes == null) {
+			throw new IllegalArgumentException(
+					"alphabet must contain only ASCII characters");
+		}
+		checkRange(buffer.length, offset, length);
+		int end = offset + length;
+		int i = offset;
+		while (i < end) {
+			long draw = random.nextLong();
+			for (int n = perDraw; n > 0 && i < end; n--, draw >>>= bits) {
+				int index = (int) draw & mask;
+				if (index < bytes.length) {
+					buffer[i++] = bytes[index];
+				}
+			}
+		}
+	}
+
+	/**
+	 * 第4版(随机)UUID. 比{@link UUID#randomUUID()}快, 但不使用SecureRandom
+	 *
+	 * @return
+	 */
+	public static UUID randomUUID() {
+		return randomUUID(RandomUtil.getRandom());
+	}
+
+	/**
+	 * 第4版(随机)UUID
+	 *
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	public static UUID randomUUID(Random random) {
+		return new UUID(versionFour(random.nextLong()), variant(random
+				.nextLong()));
+	}
+
+	/**
+	 * 把第4版UUID的标准形式(36个字符)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @return 写入后的位置
+	 */
+	public static int randomUUID(char[] buffer, int offset) {
+		return randomUUID(buffer, offset, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 把第4版UUID的标准形式(36个字符)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param random
+	 *            随机数生成器
+	 * @return 写入后的位置
+	 */
+	public static int randomUUID(char[] buffer, int offset, Random random) {
+		return format(versionFour(random.nextLong()),
+				variant(random.nextLong()), buffer, offset);
+	}
+
+	/**
+	 * 以ASCII字节把第4版UUID的标准形式(36个字节)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @return 写入后的位置
+	 */
+	public static int randomUUID(byte[] buffer, int offset) {
+		return randomUUID(buffer, offset, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 以ASCII字节把第4版UUID的标准形式(36个字节)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param random
+	 *            随机数生成器
+	 * @return 写入后的位置
+	 */
+	public static int randomUUID(byte[] buffer, int offset, Random random) {
+		return format(versionFour(random.nextLong()),
+				variant(random.nextLong()), buffer, offset);
+	}
+
+	/**
+	 * 第7版(按时间排序)UUID: 高48位是毫秒时间戳, 其后12位是同一毫秒内的递增序号,
+	 * 因此本进程内产生的UUID严格递增, 按字符串或按{@link UUID#compareTo(UUID)}排序都与产生顺序一致
+	 *
+	 * @return
+	 */
+	public static UUID timeOrderedUUID() {
+		return timeOrderedUUID(RandomUtil.getRandom());
+	}
+
+	/**
+	 * 第7版(按时间排序)UUID, 随机部分取自参数生成器
+	 *
+	 * @param random
+	 *            随机数生成器
+	 * @return
+	 */
+	public static UUID timeOrderedUUID(Random random) {
+		return new UUID(versionSeven(), variant(random.nextLong()));
+	}
+
+	/**
+	 * 把第7版UUID的标准形式(36个字符)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @return 写入后的位置
+	 */
+	public static int timeOrderedUUID(char[] buffer, int offset) {
+		return timeOrderedUUID(buffer, offset, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 把第7版UUID的标准形式(36个字符)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param random
+	 *            随机数生成器
+	 * @return 写入后的位置
+	 */
+	public static int timeOrderedUUID(char[] buffer, int offset,
+			Random random) {
+		return format(versionSeven(), variant(random.nextLong()), buffer,
+				offset);
+	}
+
+	/**
+	 * 以ASCII字节把第7版UUID的标准形式(36个字节)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @return 写入后的位置
+	 */
+	public static int timeOrderedUUID(byte[] buffer, int offset) {
+		return timeOrderedUUID(buffer, offset, RandomUtil.getRandom());
+	}
+
+	/**
+	 * 以ASCII字节把第7版UUID的标准形式(36个字节)写入buffer, 不产生对象
+	 *
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @param random
+	 *            随机数生成器
+	 * @return 写入后的位置
+	 */
+	public static int timeOrderedUUID(byte[] buffer, int offset,
+			Random random) {
+		return format(versionSeven(), variant(random.nextLong()), buffer,
+				offset);
+	}
+
+	/**
+	 * 以标准形式xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx写入UUID
+	 *
+	 * @param uuid
+	 *            UUID
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @return 写入后的位置
+	 */
+	public static int format(UUID uuid, char[] buffer, int offset) {
+		return format(uuid.getMostSignificantBits(),
+				uuid.getLeastSignificantBits(), buffer, offset);
+	}
+
+	/**
+	 * 以标准形式xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx写入UUID的ASCII字节
+	 *
+	 * @param uuid
+	 *            UUID
+	 * @param buffer
+	 *            目标数组
+	 * @param offset
+	 *            起始位置
+	 * @return 写入后的位置
+	 */
+	public static int format(UUID uuid, byte[] buffer, int offset) {
+		return format(uuid.getMostSignificantBits(),
+				uuid.getLeastSignificantBits(), buffer, offset);
+	}
+
+	private static int format(long msb, long lsb, char[] buffer, int offset) {
+		checkRange(buffer.length, offset, UUID_LENGTH);
+		hex(msb >>> 32, 8, buffer, offset);
+		buffer[offset + 8] = '-';
+		hex(msb >>> 16, 4, buffer, offset + 9);
+		buffer[offset + 13] = '-';
+		hex(msb, 4, buffer, offset + 14);
+		buffer[offset + 18] = '-';
+		hex(lsb >>> 48, 4, buffer, offset + 19);
+		buffer[offset + 23] = '-';
+		hex(lsb, 12, buffer, offset + 24);
+		return offset + UUID_LENGTH;
+	}
+
+	private static int format(long msb, long lsb, byte[] buffer, int offset) {
+		checkRange(buffer.length, offset, UUID_LENGTH);
+		hex(msb >>> 32, 8, buffer, offset);
+		buffer[offset + 8] = '-';
+		hex(msb >>> 16, 4, buffer, offset + 9);
+		buffer[offset + 13] = '-';
+		hex(msb, 4, buffer, offset + 14);
+		buffer[offset + 18] = '-';
+		hex(lsb >>> 48, 4, buffer, offset + 19);
+		buffer[offset + 23] = '-';
+		hex(lsb, 12, buffer, offset + 24);
+		return offset + UUID_LENGTH;
+	}
+
+	/**
+	 * 写入value的低digits个十六进制位
+	 */
+	private static void hex(long value, int digits, char[] buffer, int offset) {
+		for (int i = offset + digits - 1; i >= offset; i--, value >>>= 4) {
+			buffer[i] = HEX_DIGITS[(int) value & 0xF];
+		}
+	}
+
+	private static void hex(long value, int digits, byte[] buffer, int offset) {
+		for (int i = offset + digits - 1; i >= offset; i--, value >>>= 4) {
+			buffer[i] = (byte) HEX_DIGITS[(int) value & 0xF];
+		}
+	}
+
+	/**
+	 * 设置版本号4
+	 */
+	private static long versionFour(long msb) {
+		return msb & ~0xF000L | 0x4000L;
+	}
+
+	/**
+	 * 设置变体10
+	 */
+	private static long variant(long lsb) {
+		return lsb & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+	}
+
+	/**
+	 * 第7版UUID的高64位. 时间戳与序号合成一个严格递增的值, 序号用尽时借用下一毫秒
+	 *
+	 * @return
+	 */
+	private static long versionSeven() {
+		long now = System.currentTimeMillis() << 12;
+		long last, next;
+		do {
+			last = LAST_TIME_ORDERED.get();
+			next = Math.max(now, last + 1);
+		} while (!LAST_TIME_ORDERED.compareAndSet(last, next));
+		return (next >>> 12) << 16 | 0x7000L | next & 0xFFFL;
+	}
+
+	/**
+	 * 校验区间[offset, offset + length)位于数组内
+	 */
+	private static void checkRange(int size, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > size - length) {
+			throw new IllegalArgumentException(
+					"offset and length must be within the buffer");
+		}
+	}
+
+}
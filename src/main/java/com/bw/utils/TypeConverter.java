@@ -0,0 +1,992 @@
+package com.bw.utils;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 类型转换器
+ * <p>
+ * 每对(源类型, 目标类型)只在第一次转换时解析出专用的转换函数并缓存, 之后的转换直接调用该函数,
+ * 不再逐个判断类型. 内置的转换包括: 基本数据类型与装箱类型之间的转换(拓宽转换直接进行; 缩窄为整数类型
+ * 要求数值为整数且落在目标类型的范围内, 缩窄为float允许舍入, 但有限值不能溢出), 字符串与数值、布尔、字符、枚举、日期之间的转换(日期按
+ * {@link DateCaseUtil#parseMillis(CharSequence)}解析、按{@link DateCaseUtil#format(Date)}格式化),
+ * 以及Date、Instant、LocalDateTime、LocalDate与毫秒时间戳之间的转换. 无法转换时抛出
+ * {@link IllegalArgumentException}. 热点路径可使用{@link #toInt(Object)}等返回基本数据类型的方法,
+ * 避免装箱.
+ *
+ * <pre>
+ * TypeConverter converter = TypeConverter.getInstance();
+ * int count = converter.toInt(" 42 ");
+ * Date date = converter.convert("2019/12/06 12:30", Date.class);
+ * TimeUnit unit = converter.convert("seconds", TimeUnit.class);
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class TypeConverter {
+
+	private static final TypeConverter INSTANCE = new TypeConverter();
+	private static final ZoneId LOCAL_ZONE_ID = DateCaseUtil.LOCAL_ZONE
+			.toZoneId();
+	private static final Function<Object, Object> IDENTITY = value -> value;
+
+	private volatile Cache cache = new Cache(new Registration[0]);
+
+	/**
+	 * 共享的转换器. 在其上注册的转换器对所有使用者生效
+	 *
+	 * @return
+	 */
+	public static TypeConverter getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * 注册自定义的转换器, 优先于内置的转换. 源类型精确匹配的转换器优先, 其次是后注册的、
+	 * 源类型为值的父类或接口的转换器. 注册后已缓存的转换函数全部失效
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            目标类型, 基本数据类型与其装箱类型等同
+	 * @param converter
+	 *            转换函数, 不会收到null
+	 * @return 当前转换器
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <S, T> TypeConverter register(Class<S> source,
+			Class<T> target, Function<? super S, ? extends T> converter) {
+		if (source == null || target == null || converter == null) {
+			throw new IllegalArgumentException(
+					"source, target and converter must not be null");
+		}
+		Registration[] registrations = cache.registrations;
+		Registration[] grown = new Registration[registrations.length + 1];
+		System.arraycopy(registrations, 0, grown, 0, registrations.length);
+		grown[registrations.length] = new Registration(wrap(source),
+				wrap(target), (Function<Object, Object>) converter);
+		cache = new Cache(grown);
+		return this;
+	}
+
+	/**
+	 * 转换为目标类型. null转换为基本数据类型时取其默认值, 转换为其它类型时仍为null
+	 *
+	 * @param value
+	 *            值
+	 * @param target
+	 *            目标类型, 为基本数据类型时返回其装箱类型的值
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T convert(Object value, Class<T> target) {
+		if (value == null) {
+			return (T) TypeUtil.getTypeInfo(target).getDefaultValue();
+		}
+		return (T) cache.converters.get(target).get(value.getClass())
+				.apply(value);
+	}
+
+	/**
+	 * 获取预先解析好的转换函数, 用于反复转换同一类型的值, 省去每次的缓存查找.
+	 * 函数对null的处理与{@link #convert(Object, Class)}相同, 不受之后注册的转换器影响
+	 *
+	 * @param source
+	 *            源类型, 值的实际类型应为该类型或其子类
+	 * @param target
+	 *            目标类型
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Function<Object, T> getConverter(Class<?> source, Class<T> target) {
+		Function<Object, Object> converter = cache.converters.get(target).get(
+				wrap(source));
+		Object defaultValue = TypeUtil.getTypeInfo(target).getDefaultValue();
+		return value -> (T) (value == null ? defaultValue : converter
+				.apply(value));
+	}
+
+	/**
+	 * 是否支持从源类型到目标类型的转换
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            目标类型
+	 * @return
+	 */
+	public boolean canConvert(Class<?> source, Class<?> target) {
+		Function<Object, Object> converter = cache.converters.get(target).get(
+				wrap(source));
+		return !(converter instanceof Unsupported);
+	}
+
+	/**
+	 * 转换为int, 不装箱. null转换为0
+	 *
+	 * @param value
+	 *            值
+	 * @return
+	 */
+	public int toInt(Object value) {
+		return value == null ? 0 : cache.ints.get(value.getClass())
+				.applyAsInt(value);
+	}
+
+	/**
+	 * 转换为long, 不装箱. null转换为0
+	 *
+	 * @param value
+	 *            值
+	 * @return
+	 */
+	public long toLong(Object value) {
+		return value == null ? 0 : cache.longs.get(value.getClass())
+				.applyAsLong(value);
+	}
+
+	/**
+	 * 转换为double, 不装箱. null转换为0
+	 *
+	 * @param value
+	 *            值
+	 * @return
+	 */
+	public double toDouble(Object value) {
+		return value == null ? 0 : cache.doubles.get(value.getClass())
+				.applyAsDouble(value);
+	}
+
+	/**
+	 * 转换为boolean, 不装箱. null转换为false
+	 *
+	 * @param value
+	 *            值
+	 * @return
+	 */
+	public boolean toBoolean(Object value) {
+		return value != null
+				&& cache.booleans.get(value.getClass()).test(value);
+	}
+
+	/**
+	 * 基本数据类型取其装箱类型, 其它类型不变
+	 *
+	 * @param type
+	 *            类型
+	 * @return
+	 */
+	private static Class<?> wrap(Class<?> type) {
+		Class<?> wrapper = TypeUtil.getTypeInfo(type).getWrapperType();
+		return wrapper != null ? wrapper : type;
+	}
+
+	/**
+	 * 内置的转换, 目标类型已取装箱类型
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            目标类型
+	 * @return 不支持时返回null
+	 */
+	private static Function<Object, Object> builtIn(Class<?> source,
+			Class<?> target) {
+		if (target == String.class) {
+			return stringOf(source);
+		}
+		if (target == Integer.class) {
+			ToIntFunction<Object> ints = intOf(source);
+			return ints == null ? null : value -> ints.applyAsInt(value);
+		}
+		if (target == Long.class) {
+			ToLongFunction<Object> longs = longOf(source, target);
+			return longs == null ? null : value -> longs.applyAsLong(value);
+		}
+		if (target == Double.class) {
+			ToDoubleFunction<Object> doubles = doubleOf(source);
+			return doubles == null ? null : value -> doubles
+					.applyAsDouble(value);
+		}
+		if (target == Float.class) {
+			ToDoubleFunction<Object> doubles = doubleOf(source);
+			return doubles == null ? null : value -> toFloat(value,
+					doubles.applyAsDouble(value));
+		}
+		if (target == Short.class) {
+			ToLongFunction<Object> longs = longOf(source, target);
+			return longs == null ? null : value -> (short) checkRange(value,
+					longs.applyAsLong(value), Short.MIN_VALUE, Short.MAX_VALUE,
+					target);
+		}
+		if (target == Byte.class) {
+			ToLongFunction<Object> longs = longOf(source, target);
+			return longs == null ? null : value -> (byte) checkRange(value,
+					longs.applyAsLong(value), Byte.MIN_VALUE, Byte.MAX_VALUE,
+					target);
+		}
+		if (target == Character.class) {
+			return charOf(source);
+		}
+		if (target == Boolean.class) {
+			Predicate<Object> booleans = booleanOf(source);
+			return booleans == null ? null : value -> booleans.test(value);
+		}
+		if (target == BigDecimal.class) {
+			return decimalOf(source);
+		}
+		if (target == BigInteger.class) {
+			return bigIntegerOf(source);
+		}
+		if (target.isEnum()) {
+			return enumOf(source, target);
+		}
+		return temporalOf(source, target);
+	}
+
+	/**
+	 * 转换为字符串: 日期按{@link DateCaseUtil#format(Date)}格式化, 枚举取其名称,
+	 * BigDecimal不使用科学计数法
+	 *
+	 * @param source
+	 *            源类型
+	 * @return
+	 */
+	private static Function<Object, Object> stringOf(Class<?> source) {
+		if (Date.class.isAssignableFrom(source)) {
+			return value -> DateCaseUtil.format((Date) value);
+		}
+		if (source == Instant.class) {
+			return value -> DateCaseUtil.format(new Date(((Instant) value)
+					.toEpochMilli()));
+		}
+		if (Enum.class.isAssignableFrom(source)) {
+			return value -> ((Enum<?>) value).name();
+		}
+		if (source == BigDecimal.class) {
+			return value -> ((BigDecimal) value).toPlainString();
+		}
+		return String::valueOf;
+	}
+
+	/**
+	 * 转换为int: 整数须在int范围内, 小数须为整数值, 字符取其编码, 枚举取其序号
+	 *
+	 * @param source
+	 *            源类型
+	 * @return 不支持时返回null
+	 */
+	private static ToIntFunction<Object> intOf(Class<?> source) {
+		if (source == Integer.class || source == Short.class
+				|| source == Byte.class) {
+			return value -> ((Number) value).intValue();
+		}
+		if (source == Character.class) {
+			return value -> (Character) value;
+		}
+		if (Enum.class.isAssignableFrom(source)) {
+			return value -> ((Enum<?>) value).ordinal();
+		}
+		ToLongFunction<Object> longs = longOf(source, Integer.class);
+		return longs == null ? null : value -> (int) checkRange(value,
+				longs.applyAsLong(value), Integer.MIN_VALUE, Integer.MAX_VALUE,
+				Integer.class);
+	}
+
+	/**
+	 * 转换为long: 小数须为整数值, 字符取其编码, 枚举取其序号, Date与Instant取毫秒时间戳.
+	 * 也用作缩窄到更小整数类型的第一步, 因此异常信息使用最终的目标类型
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            最终的目标类型, 用于异常信息
+	 * @return 不支持时返回null
+	 */
+	private static ToLongFunction<Object> longOf(Class<?> source,
+			Class<?> target) {
+		if (isIntegral(source)) {
+			return value -> ((Number) value).longValue();
+		}
+		if (source == Double.class || source == Float.class) {
+			return value -> exactLong(value, ((Number) value).doubleValue(),
+					target);
+		}
+		if (source == BigDecimal.class) {
+			return value -> exactLong(value, (BigDecimal) value, target);
+		}
+		if (source == BigInteger.class) {
+			return value -> {
+				BigInteger integer = (BigInteger) value;
+				if (integer.bitLength() > 63) {
+					throw outOfRange(value, target);
+				}
+				return integer.longValue();
+			};
+		}
+		if (Number.class.isAssignableFrom(source)) {
+			// 未知的数值类型, 整数值经double舍入后仍与自身相等
+			return value -> {
+				Number number = (Number) value;
+				long result = number.longValue();
+				if ((double) result != number.doubleValue()) {
+					throw outOfRange(value, target);
+				}
+				return result;
+			};
+		}
+		if (source == Character.class) {
+			return value -> (Character) value;
+		}
+		if (Enum.class.isAssignableFrom(source)) {
+			return value -> ((Enum<?>) value).ordinal();
+		}
+		if (Date.class.isAssignableFrom(source)) {
+			return value -> ((Date) value).getTime();
+		}
+		if (source == Instant.class) {
+			return value -> ((Instant) value).toEpochMilli();
+		}
+		if (CharSequence.class.isAssignableFrom(source)) {
+			return value -> parseLong((CharSequence) value, target);
+		}
+		return null;
+	}
+
+	/**
+	 * 是否是值一定落在long范围内的整数类型
+	 *
+	 * @param source
+	 *            源类型
+	 * @return
+	 */
+	private static boolean isIntegral(Class<?> source) {
+		return source == Long.class || source == Integer.class
+				|| source == Short.class || source == Byte.class
+				|| source == AtomicInteger.class || source == AtomicLong.class;
+	}
+
+	/**
+	 * 数值转换为long, 规则同{@link #longOf(Class, Class)}
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            最终的目标类型, 用于异常信息
+	 * @return 不是数值类型时返回null
+	 */
+	private static ToLongFunction<Object> numberOf(Class<?> source,
+			Class<?> target) {
+		return Number.class.isAssignableFrom(source) ? longOf(source, target)
+				: null;
+	}
+
+	/**
+	 * 转换为double: 字符取其编码, 字符串按{@link Double#parseDouble(String)}解析
+	 *
+	 * @param source
+	 *            源类型
+	 * @return 不支持时返回null
+	 */
+	private static ToDoubleFunction<Object> doubleOf(Class<?> source) {
+		if (Number.class.isAssignableFrom(source)) {
+			return value -> ((Number) value).doubleValue();
+		}
+		if (source == Character.class) {
+			return value -> (Character) value;
+		}
+		if (CharSequence.class.isAssignableFrom(source)) {
+			return value -> Double.parseDouble(value.toString());
+		}
+		return null;
+	}
+
+	/**
+	 * 转换为char: 字符串须恰好一个字符, 数值须在char范围内
+	 *
+	 * @param source
+	 *            源类型
+	 * @return 不支持时返回null
+	 */
+	private static Function<Object, Object> charOf(Class<?> source) {
+		if (CharSequence.class.isAssignableFrom(source)) {
+			return value -> {
+				CharSequence text = (CharSequence) value;
+				if (text.length() != 1) {
+					throw new IllegalArgumentException("Cannot convert \""
+							+ text + "\" to java.lang.Character");
+				}
+				return text.charAt(0);
+			};
+		}
+		ToLongFunction<Object> longs = numberOf(source, Character.class);
+		return longs == null ? null : value -> (char) checkRange(value,
+				longs.applyAsLong(value), Character.MIN_VALUE,
+				Character.MAX_VALUE, Character.class);
+	}
+
+	/**
+	 * 转换为boolean: 字符串为true、false(不区分大小写)、1或0, 数值为1或0
+	 *
+	 * @param source
+	 *            源类型
+	 * @return 不支持时返回null
+	 */
+	private static Predicate<Object> booleanOf(Class<?> source) {
+		if (source == Boolean.class) {
+			return value -> (Boolean) value;
+		}
+		if (CharSequence.class.isAssignableFrom(source)) {
+			return value -> parseBoolean((CharSequence) value);
+		}
+		ToLongFunction<Object> longs = numberOf(source, Boolean.class);
+		return longs == null ? null : value -> checkRange(value,
+				longs.applyAsLong(value), 0, 1, Boolean.class) == 1;
+	}
+
+	/**
+	 * 转换为BigDecimal, 浮点数按其十进制字符串表示转换, 如0.1f转换为0.1. 未知的数值类型按其字符串表示转换,
+	 * 字符串不是数值时按其double值转换
+	 *
+	 * @param source
+	 *            源类型
+	 * @return 不支持时返回null
+	 */
+	private static Function<Object, Object> decimalOf(Class<?> source) {
+		if (source == Double.class) {
+			return value -> BigDecimal.valueOf(checkFinite(value,
+					(Double) value));
+		}
+		if (source == Float.class) {
+			return value -> new BigDecimal(Float.toString((float) checkFinite(
+					value, (Float) value)));
+		}
+		if (source == BigInteger.class) {
+			return value -> new BigDecimal((BigInteger) value);
+		}
+		if (source == BigDecimal.class) {
+			return IDENTITY;
+		}
+		if (CharSequence.class.isAssignableFrom(source)) {
+			return value -> new BigDecimal(trim((CharSequence) value));
+		}
+		if (Number.class.isAssignableFrom(source) && !isIntegral(source)) {
+			// 如声明为Number的值, 实际可能是任意数值类型
+			return value -> {
+				try {
+					return new BigDecimal(value.toString());
+				} catch (NumberFormatException e) {
+					return BigDecimal.valueOf(checkFinite(value,
+							((Number) value).doubleValue()));
+				}
+			};
+		}
+		ToLongFunction<Object> longs = longOf(source, BigDecimal.class);
+		return longs == null ? null : value -> BigDecimal.valueOf(longs
+				.applyAsLong(value));
+	}
+
+	/**
+	 * 转换为BigInteger, 小数须为整数值
+	 *
+	 * @param source
+	 *            源类型
+	 * @return 不支持时返回null
+	 */
+	private static Function<Object, Object> bigIntegerOf(Class<?> source) {
+		if (Number.class.isAssignableFrom(source) && !isIntegral(source)
+				|| CharSequence.class.isAssignableFrom(source)) {
+			Function<Object, Object> decimals = decimalOf(source);
+			return value -> {
+				try {
+					return ((BigDecimal) decimals.apply(value))
+							.toBigIntegerExact();
+				} catch (ArithmeticException e) {
+					throw outOfRange(value, BigInteger.class);
+				}
+			};
+		}
+		ToLongFunction<Object> longs = longOf(source, BigInteger.class);
+		return longs == null ? null : value -> BigInteger.valueOf(longs
+				.applyAsLong(value));
+	}
+
+	/**
+	 * 转换为枚举: 字符串按名称查找(先精确匹配, 再忽略大小写), 整数按序号查找
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            枚举类型
+	 * @return 不支持时返回null
+	 */
+	private static Function<Object, Object> enumOf(Class<?> source,
+			Class<?> target) {
+		Object[] constants = target.getEnumConstants();
+		if (CharSequence.class.isAssignableFrom(source)) {
+			Map<String, Object> names = new HashMap<String, Object>();
+			for (Object constant : constants) {
+				names.put(((Enum<?>) constant).name(), constant);
+			}
+			return value -> {
+				String name = trim((CharSequence) value);
+				Object constant = names.get(name);
+				if (constant != null) {
+					return constant;
+				}
+				for (Object candidate : constants) {
+					if (((Enum<?>) candidate).name().equalsIgnoreCase(name)) {
+						return candidate;
+					}
+				}
+				throw new IllegalArgumentException("No enum constant "
+						+ target.getName() + "." + name);
+			};
+		}
+		ToLongFunction<Object> longs = numberOf(source, target);
+		return longs == null ? null : value -> constants[(int) checkRange(
+				value, longs.applyAsLong(value), 0, constants.length - 1,
+				target)];
+	}
+
+	/**
+	 * 转换为Date、Instant、LocalDateTime或LocalDate, 经由毫秒时间戳, 本地日期时间使用默认时区
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            目标类型
+	 * @return 不支持时返回null
+	 */
+	private static Function<Object, Object> temporalOf(Class<?> source,
+			Class<?> target) {
+		if (target != Date.class && target != Instant.class
+				&& target != LocalDateTime.class && target != LocalDate.class) {
+			return null;
+		}
+		ToLongFunction<Object> millis = millisOf(source, target);
+		if (millis == null) {
+			return null;
+		}
+		if (target == Date.class) {
+			return value -> new Date(millis.applyAsLong(value));
+		}
+		if (target == Instant.class) {
+			return value -> Instant.ofEpochMilli(millis.applyAsLong(value));
+		}
+		if (target == LocalDateTime.class) {
+			return value -> LocalDateTime.ofInstant(
+					Instant.ofEpochMilli(millis.applyAsLong(value)),
+					LOCAL_ZONE_ID);
+		}
+		return value -> LocalDateTime.ofInstant(
+				Instant.ofEpochMilli(millis.applyAsLong(value)), LOCAL_ZONE_ID)
+				.toLocalDate();
+	}
+
+	/**
+	 * 转换为毫秒时间戳: 字符串按{@link DateCaseUtil#parseMillis(CharSequence, int, int)}解析,
+	 * 整数视为毫秒时间戳
+	 *
+	 * @param source
+	 *            源类型
+	 * @param target
+	 *            目标类型, 用于异常信息
+	 * @return 不支持时返回null
+	 */
+	private static ToLongFunction<Object> millisOf(Class<?> source,
+			Class<?> target) {
+		if (CharSequence.class.isAssignableFrom(source)) {
+			return value -> {
+				CharSequence text = (CharSequence) value;
+				int end = trimEnd(text);
+				return DateCaseUtil.parseMillis(text, trimBegin(text, end), end);
+			};
+		}
+		if (source == LocalDateTime.class) {
+			return value -> ((LocalDateTime) value).atZone(LOCAL_ZONE_ID)
+					.toInstant().toEpochMilli();
+		}
+		if (source == LocalDate.class) {
+			return value -> ((LocalDate) value).atStartOfDay(LOCAL_ZONE_ID)
+					.toInstant().toEpochMilli();
+		}
+		if (Number.class.isAssignableFrom(source)
+				|| Date.class.isAssignableFrom(source)
+				|| source == Instant.class) {
+			return longOf(source, target);
+		}
+		return null;
+	}
+
+	/**
+	 * 解析十进制整数, 忽略首尾空白. 带小数点或指数的写法须为整数值, 如"3.0"、"1e3"
+	 *
+	 * @param text
+	 *            字符序列
+	 * @param target
+	 *            最终的目标类型, 用于异常信息
+	 * @return
+	 */
+	private static long parseLong(CharSequence text, Class<?> target) {
+		int end = trimEnd(text);
+		int begin = trimBegin(text, end);
+		try {
+			return Splitter.parseLong(text, begin, end);
+		} catch (NumberFormatException e) {
+			BigDecimal decimal;
+			try {
+				decimal = new BigDecimal(text.subSequence(begin, end)
+						.toString());
+			} catch (NumberFormatException ignored) {
+				throw e;
+			}
+			return exactLong(text, decimal, target);
+		}
+	}
+
+	/**
+	 * 解析布尔值: true、false(不区分大小写)、1或0, 忽略首尾空白
+	 *
+	 * @param text
+	 *            字符序列
+	 * @return
+	 */
+	private static boolean parseBoolean(CharSequence text) {
+		String value = trim(text);
+		if ("true".equalsIgnoreCase(value) || "1".equals(value)) {
+			return true;
+		}
+		if ("false".equalsIgnoreCase(value) || "0".equals(value)) {
+			return false;
+		}
+		throw new IllegalArgumentException("Cannot convert \"" + text
+				+ "\" to java.lang.Boolean");
+	}
+
+	/**
+	 * 校验小数为有限值, NaN与无穷大无法转换为BigDecimal
+	 *
+	 * @param value
+	 *            原始值, 用于异常信息
+	 * @param number
+	 *            小数
+	 * @return number
+	 */
+	private static double checkFinite(Object value, double number) {
+		if (Double.isNaN(number) || Double.isInfinite(number)) {
+			throw outOfRange(value, BigDecimal.class);
+		}
+		return number;
+	}
+
+	/**
+	 * 缩窄为float, 允许舍入, 但有限值不能溢出为无穷大. 原始值本身为无穷大(含字符串Infinity)时除外
+	 *
+	 * @param value
+	 *            原始值
+	 * @param number
+	 *            原始值的double值, 可能已经溢出
+	 * @return
+	 */
+	private static float toFloat(Object value, double number) {
+		float result = (float) number;
+		if (Float.isInfinite(result) && !isInfinite(value)) {
+			throw outOfRange(value, Float.class);
+		}
+		return result;
+	}
+
+	/**
+	 * 原始值本身是否为无穷大
+	 *
+	 * @param value
+	 *            原始值
+	 * @return
+	 */
+	private static boolean isInfinite(Object value) {
+		if (value instanceof Double || value instanceof Float) {
+			return Double.isInfinite(((Number) value).doubleValue());
+		}
+		return value instanceof CharSequence
+				&& value.toString().contains("Infinity");
+	}
+
+	/**
+	 * 小数精确转换为long
+	 *
+	 * @param value
+	 *            原始值, 用于异常信息
+	 * @param number
+	 *            小数
+	 * @param target
+	 *            最终的目标类型, 用于异常信息
+	 * @return
+	 */
+	private static long exactLong(Object value, double number,
+			Class<?> target) {
+		// long范围为[-2^63, 2^63), NaN不满足任何比较
+		if (number >= -0x1p63 && number < 0x1p63 && (long) number == number) {
+			return (long) number;
+		}
+		throw outOfRange(value, target);
+	}
+
+	/**
+	 * BigDecimal精确转换为long
+	 *
+	 * @param value
+	 *            原始值, 用于异常信息
+	 * @param number
+	 *            BigDecimal
+	 * @param target
+	 *            最终的目标类型, 用于异常信息
+	 * @return
+	 */
+	private static long exactLong(Object value, BigDecimal number,
+			Class<?> target) {
+		try {
+			return number.longValueExact();
+		} catch (ArithmeticException e) {
+			throw outOfRange(value, target);
+		}
+	}
+
+	/**
+	 * 校验数值落在[min, max]区间内
+	 *
+	 * @param value
+	 *            原始值, 用于异常信息
+	 * @param number
+	 *            数值
+	 * @param min
+	 *            最小值
+	 * @param max
+	 *            最大值
+	 * @param target
+	 *            目标类型, 用于异常信息
+	 * @return number
+	 */
+	private static long checkRange(Object value, long number, long min,
+			long max, Class<?> target) {
+		if (number < min || number > max) {
+			throw outOfRange(value, target);
+		}
+		return number;
+	}
+
+	private static IllegalArgumentException outOfRange(Object value,
+			Class<?> target) {
+		return new IllegalArgumentException("Cannot convert " + value
+				+ " to " + target.getName() + " exactly");
+	}
+
+	private static String trim(CharSequence text) {
+		int end = trimEnd(text);
+		return text.subSequence(trimBegin(text, end), end).toString();
+	}
+
+	private static int trimEnd(CharSequence text) {
+		int end = text.length();
+		while (end > 0 && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	private static int trimBegin(CharSequence text, int end) {
+		int begin = 0;
+		while (begin < end && text.charAt(begin) <= ' ') {
+			begin++;
+		}
+		return begin;
+	}
+
+	/**
+	 * 自定义的转换器
+	 */
+	private static final class Registration {
+
+		private final Class<?> source;
+		private final Class<?> target;
+		private final Function<Object, Object> converter;
+
+		private Registration(Class<?> source, Class<?> target,
+				Function<Object, Object> converter) {
+			this.source = source;
+			this.target = target;
+			this.converter = converter;
+		}
+
+	}
+
+	/**
+	 * 不支持的转换, 调用时抛出异常
+	 */
+	private static final class Unsupported implements Function<Object, Object> {
+
+		private final Class<?> source;
+		private final Class<?> target;
+
+		private Unsupported(Class<?> source, Class<?> target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		public Object apply(Object value) {
+			throw new IllegalArgumentException("Cannot convert "
+					+ source.getName() + " to " + target.getName());
+		}
+
+	}
+
+	/**
+	 * 某一组自定义转换器下解析出的转换函数, 注册新的转换器时整体替换
+	 */
+	private static final class Cache {
+
+		private final Registration[] registrations;
+		// 外层按目标类型、内层按源类型缓存
+		private final ClassValue<ClassValue<Function<Object, Object>>> converters = new ClassValue<ClassValue<Function<Object, Object>>>() {
+			@Override
+			protected ClassValue<Function<Object, Object>> computeValue(
+					Class<?> target) {
+				return new ClassValue<Function<Object, Object>>() {
+					@Override
+					protected Function<Object, Object> computeValue(
+							Class<?> source) {
+						return resolve(source, target);
+					}
+				};
+			}
+		};
+		private final ClassValue<ToIntFunction<Object>> ints = new ClassValue<ToIntFunction<Object>>() {
+			@Override
+			protected ToIntFunction<Object> computeValue(Class<?> source) {
+				if (find(source, Integer.class) == null) {
+					ToIntFunction<Object> resolved = intOf(source);
+					if (resolved != null) {
+						return resolved;
+					}
+				}
+				Function<Object, Object> converter = converters.get(
+						Integer.class).get(source);
+				return value -> (Integer) converter.apply(value);
+			}
+		};
+		private final ClassValue<ToLongFunction<Object>> longs = new ClassValue<ToLongFunction<Object>>() {
+			@Override
+			protected ToLongFunction<Object> computeValue(Class<?> source) {
+				if (find(source, Long.class) == null) {
+					ToLongFunction<Object> resolved = longOf(source,
+							Long.class);
+					if (resolved != null) {
+						return resolved;
+					}
+				}
+				Function<Object, Object> converter = converters
+						.get(Long.class).get(source);
+				return value -> (Long) converter.apply(value);
+			}
+		};
+		private final ClassValue<ToDoubleFunction<Object>> doubles = new ClassValue<ToDoubleFunction<Object>>() {
+			@Override
+			protected ToDoubleFunction<Object> computeValue(Class<?> source) {
+				if (find(source, Double.class) == null) {
+					ToDoubleFunction<Object> resolved = doubleOf(source);
+					if (resolved != null) {
+						return resolved;
+					}
+				}
+				Function<Object, Object> converter = converters.get(
+						Double.class).get(source);
+				return value -> (Double) converter.apply(value);
+			}
+		};
+		private final ClassValue<Predicate<Object>> booleans = new ClassValue<Predicate<Object>>() {
+			@Override
+			protected Predicate<Object> computeValue(Class<?> source) {
+				if (find(source, Boolean.class) == null) {
+					Predicate<Object> resolved = booleanOf(source);
+					if (resolved != null) {
+						return resolved;
+					}
+				}
+				Function<Object, Object> converter = converters.get(
+						Boolean.class).get(source);
+				return value -> (Boolean) converter.apply(value);
+			}
+		};
+
+		private Cache(Registration[] registrations) {
+			this.registrations = registrations;
+		}
+
+		/**
+		 * 解析转换函数: 自定义的转换器、类型兼容时原样返回、内置的转换, 依次尝试
+		 *
+		 * @param source
+		 *            源类型
+		 * @param target
+		 *            目标类型
+		 * @return
+		 */
+		private Function<Object, Object> resolve(Class<?> source,
+				Class<?> target) {
+			Class<?> type = wrap(target);
+			Function<Object, Object> converter = find(source, type);
+			if (converter != null) {
+				return converter;
+			}
+			if (type.isAssignableFrom(source)) {
+				return IDENTITY;
+			}
+			converter = builtIn(source, type);
+			return converter != null ? converter : new Unsupported(source,
+					target);
+		}
+
+		/**
+		 * 查找自定义的转换器, 源类型精确匹配的优先, 其次是后注册的
+		 *
+		 * @param source
+		 *            源类型
+		 * @param target
+		 *            目标类型, 已取装箱类型
+		 * @return 找不到时返回null
+		 */
+		private Function<Object, Object> find(Class<?> source, Class<?> target) {
+			Registration assignable = null;
+			for (int i = registrations.length - 1; i >= 0; i--) {
+				Registration registration = registrations[i];
+				if (registration.target != target) {
+					continue;
+				}
+				if (registration.source == source) {
+					return registration.converter;
+				}
+				if (assignable == null
+						&& registration.source.isAssignableFrom(source)) {
+					assignable = registration;
+				}
+			}
+			return assignable == null ? null : assignable.converter;
+		}
+
+	}
+
+}
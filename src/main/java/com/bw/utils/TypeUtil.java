@@ -7,19 +7,32 @@ import java.lang.reflect.Array;
  */
 public class TypeUtil {
 
-	private static final int integerCursor = 0;
-	private static final int integerOffset = 8;
-	private static final int decimalCursor = 8;
-	private static final int decimalOffset = 4;
-	private static final int numbersCursor = 0;
-	private static final int numbersOffset = 12;
+	private static final int integerEnd = 8;
+	private static final int decimalEnd = 12;
 	private static final int indexNotFound = -1;
 	private static final Class<?>[] types  = {
 		Byte.TYPE, Byte.class, Short.TYPE, Short.class, Integer.TYPE, Integer.class, 
 		Long.TYPE, Long.class, Float.TYPE, Float.class, Double.TYPE,  Double.class, 
 		Boolean.TYPE, Boolean.class, Character.TYPE, Character.class
 	};
-	
+	private static final ClassValue<TypeInfo> infos = new ClassValue<TypeInfo>() {
+		@Override
+		protected TypeInfo computeValue(Class<?> type) {
+			return new TypeInfo(type);
+		}
+	};
+
+	/**
+	 * 获取类型的预计算信息, 每个类型只计算一次
+	 * 
+	 * @param type
+	 *            类型
+	 * @return
+	 */
+	public static TypeInfo getTypeInfo(Class<?> type) {
+		return infos.get(type);
+	}
+
 	/**
 	 * 判断是否是小数类型
 	 * 
@@ -28,9 +41,7 @@ public class TypeUtil {
 	 * @return
 	 */
 	public static boolean isDecimal(Class<?> type) {
-		Class<?>[] decimal = subarray(types, decimalCursor, decimalCursor
-				+ decimalOffset);
-		return ArrayUtil.contains(decimal, type);
+		return type != null && infos.get(type).isDecimal();
 	}
 
 	/**
@@ -41,9 +52,7 @@ public class TypeUtil {
 	 * @return
 	 */
 	public static boolean isInteger(Class<?> type) {
-		Class<?>[] integer = subarray(types, integerCursor, integerCursor
-				+ integerOffset);
-		return ArrayUtil.contains(integer, type);
+		return type != null && infos.get(type).isInteger();
 	}
 
 	/**
@@ -54,9 +63,7 @@ public class TypeUtil {
 	 * @return
 	 */
 	public static boolean isNumber(Class<?> type) {
-		Class<?>[] numbers = subarray(types, numbersCursor, numbersCursor
-				+ numbersOffset);
-		return ArrayUtil.contains(numbers, type);
+		return type != null && infos.get(type).isNumber();
 	}
 
 	/**
@@ -67,7 +74,7 @@ public class TypeUtil {
 	 * @return
 	 */
 	public static boolean isCompatible(Class<?> type) {
-		return ArrayUtil.contains(types, type);
+		return type != null && infos.get(type).isCompatible();
 	}
 	
 	/**
@@ -166,12 +173,9 @@ public class TypeUtil {
 	 * @return
 	 */
 	public static Class<?> getPrimitive(Class<?> type) {
-		if (type.isPrimitive()) {
-			return type;
-		}
-		int index = ArrayUtil.indexOf(types, type);
-		if (index != indexNotFound) {
-			return types[index - 1];
+		Class<?> primitive = infos.get(type).getPrimitiveType();
+		if (primitive != null) {
+			return primitive;
 		}
 		throw new IllegalArgumentException(type.getSimpleName()
 				+ " is not primitive type");
@@ -185,36 +189,181 @@ public class TypeUtil {
 	 * @return
 	 */
 	public static Class<?> getBoxedPrimitive(Class<?> type) {
-		int index = ArrayUtil.indexOf(types, type);
-		if (index != indexNotFound) {
-			type = types[index];
-			if (type.isPrimitive()) {
-				type = types[index + 1];
-			}
-			return type;
+		Class<?> wrapper = infos.get(type).getWrapperType();
+		if (wrapper != null) {
+			return wrapper;
 		}
 		throw new IllegalArgumentException(type.getSimpleName()
 				+ " is not primitive type");
 	}
 
 	/**
-	 * 子数组
-	 * 
-	 * @param array
-	 *            源数组
-	 * @param beginIndex
-	 *            开始索引
-	 * @param endIndex
-	 *            结束索引
-	 * @return
+	 * 类型的预计算信息, 不可变
 	 */
-	private static <E> E[] subarray(E[] array, int beginIndex, int endIndex) {
-		int length = endIndex - beginIndex;
-		Class<?> type = ArrayUtil.getElementType(array);
-		@SuppressWarnings("unchecked")
-		E[] target = (E[]) Array.newInstance(type, length);
-		System.arraycopy(array, beginIndex, target, 0, length);
-		return target;
+	public static final class TypeInfo {
+
+		private final Class<?> type;
+		private final boolean primitive;
+		private final boolean boxed;
+		private final boolean integer;
+		private final boolean decimal;
+		private final int width;
+		private final Object defaultValue;
+		private final Class<?> primitiveType;
+		private final Class<?> wrapperType;
+
+		private TypeInfo(Class<?> type) {
+			this.type = type;
+			this.primitive = type.isPrimitive();
+			int index = indexNotFound;
+			for (int i = 0; i < types.length; i++) {
+				if (types[i] == type) {
+					index = i;
+				}
+			}
+			// types中基本类型在偶数位, 其装箱类型紧随其后
+			this.boxed = index != indexNotFound && !primitive;
+			this.primitiveType = index != indexNotFound ? types[index & ~1]
+					: primitive ? type : null;
+			this.wrapperType = index != indexNotFound ? types[index | 1] : null;
+			this.integer = index >= 0 && index < integerEnd;
+			this.decimal = index >= integerEnd && index < decimalEnd;
+			this.width = widthOf(primitiveType);
+			this.defaultValue = wrapperType != null && primitive ? Array.get(
+					Array.newInstance(type, 1), 0) : null;
+		}
+
+		/**
+		 * 类型
+		 * 
+		 * @return
+		 */
+		public Class<?> getType() {
+			return type;
+		}
+
+		/**
+		 * 是否是基本数据类型(含void)
+		 * 
+		 * @return
+		 */
+		public boolean isPrimitive() {
+			return primitive;
+		}
+
+		/**
+		 * 是否是装箱类型
+		 * 
+		 * @return
+		 */
+		public boolean isBoxed() {
+			return boxed;
+		}
+
+		/**
+		 * 是否是基本数据类型(不含void)或装箱类型
+		 * 
+		 * @return
+		 */
+		public boolean isCompatible() {
+			return wrapperType != null;
+		}
+
+		/**
+		 * 是否是整数类型: byte、short、int、long及其装箱类型
+		 * 
+		 * @return
+		 */
+		public boolean isInteger() {
+			return integer;
+		}
+
+		/**
+		 * 是否是小数类型: float、double及其装箱类型
+		 * 
+		 * @return
+		 */
+		public boolean isDecimal() {
+			return decimal;
+		}
+
+		/**
+		 * 是否是数值类型: 整数类型或小数类型
+		 * 
+		 * @return
+		 */
+		public boolean isNumber() {
+			return integer || decimal;
+		}
+
+		/**
+		 * 基本数据类型的位数, 如int与Integer为32, boolean为1, 其它类型为0
+		 * 
+		 * @return
+		 */
+		public int getWidth() {
+			return width;
+		}
+
+		/**
+		 * 基本数据类型的默认值, 如0、false、'\0', 其它类型(含装箱类型)为null
+		 * 
+		 * @return
+		 */
+		public Object getDefaultValue() {
+			return defaultValue;
+		}
+
+		/**
+		 * 对应的基本数据类型, 基本数据类型返回自身, 其它类型返回null
+		 * 
+		 * @return
+		 */
+		public Class<?> getPrimitiveType() {
+			return primitiveType;
+		}
+
+		/**
+		 * 对应的装箱类型, 装箱类型返回自身, 其它类型(含void)返回null
+		 * 
+		 * @return
+		 */
+		public Class<?> getWrapperType() {
+			return wrapperType;
+		}
+
+		/**
+		 * 基本数据类型的位数
+		 * 
+		 * @param type
+		 *            基本数据类型
+		 * @return
+		 */
+		private static int widthOf(Class<?> type) {
+			if (type == Byte.TYPE) {
+				return Byte.SIZE;
+			}
+			if (type == Short.TYPE) {
+				return Short.SIZE;
+			}
+			if (type == Character.TYPE) {
+				return Character.SIZE;
+			}
+			if (type == Integer.TYPE) {
+				return Integer.SIZE;
+			}
+			if (type == Long.TYPE) {
+				return Long.SIZE;
+			}
+			if (type == Float.TYPE) {
+				return Float.SIZE;
+			}
+			if (type == Double.TYPE) {
+				return Double.SIZE;
+			}
+			return type == Boolean.TYPE ? 1 : 0;
+		}
+
 	}
-	
+
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.bw.utils;
+import java.util.Random;
+
+/**
+ * xoshiro256**伪随机数生成器
+ * <p>
+ * 256位状态, 周期为2^256 - 1, 每次生成64位只需若干次移位与异或, 统计质量优于线性同余的
+ * {@link Random}. 继承Random以便直接替换现有代码中的实例; 与Random不同, 本类不是线程安全的,
+ * 每个线程应使用独立的实例, 可以{@link #split()}从同一种子派生互不重叠的序列.
+ *
+ * <pre>
+ * Random random = new Xoshiro256StarStar(42);
+ * int dice = random.nextInt(6) + 1;
+ * </pre>
+ *
+ * @author Lychie Fan
+ */
+public class Xoshiro256StarStar extends Random {
+
+	private static final long serialVersionUID = 1L;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+	private static final long[] JUMP = { 0x180EC6D33CFD0ABAL,
+			0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL };
+
+	private long s0;
+	private long s1;
+	private long s2;
+	private long s3;
+
+	/**
+	 * 以随机种子创建生成器
+	 */
+	public Xoshiro256StarStar() {
+		this(System.nanoTime() ^ Thread.currentThread().getId() * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * 以种子创建生成器, 相同种子产生相同序列
+	 *
+	 * @param seed
+	 *            种子
+	 */
+	public Xoshiro256StarStar(long seed) {
+		super(seed);
+	}
+
+	/**
+	 * 复制生成器的状态
+	 *
+	 * @param source
+	 *            源生成器
+	 */
+	private Xoshiro256StarStar(Xoshiro256StarStar source) {
+		super(0);
+		this.s0 = source.s0;
+		this.s1 = source.s1;
+		this.s2 = source.s2;
+		this.s3 = source.s3;
+	}
+
+	/**
+	 * 以SplitMix64展开种子, 重置状态. 父类构造方法也会调用本方法
+	 *
+	 * @param seed
+	 *            种子
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		long x = seed;
+		s0 = mix64(x += GOLDEN_GAMMA);
+		s1 = mix64(x += GOLDEN_GAMMA);
+		s2 = mix64(x += GOLDEN_GAMMA);
+		s3 = mix64(x + GOLDEN_GAMMA);
+	}
+
+	@Override
+	public long nextLong() {
+		long result = Long.rotateLeft(s1 * 5, 7) * 9;
+		long t = s1 << 17;
+		s2 ^= s0;
+		s3 ^= s1;
+		s1 ^= s2;
+		s0 ^= s3;
+		s2 ^= t;
+		s3 = Long.rotateLeft(s3, 45);
+		return result;
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * 使序列前进2^128步, 相当于调用2^128次{@link #nextLong()}
+	 */
+	public void jump() {
+		long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+		for (long jump : JUMP) {
+			for (int b = 0; b < 64; b++) {
+				if ((jump & 1L << b) != 0) {
+					t0 ^= s0;
+					t1 ^= s1;
+					t2 ^= s2;
+					t3 ^= s3;
+				}
+				nextLong();
+			}
+		}
+		s0 = t0;
+		s1 = t1;
+		s2 = t2;
+		s3 = t3;
+	}
+
+	/**
+	 * 派生新的生成器: 新生成器从当前状态开始, 本生成器则前进2^128步,
+	 * 两者在2^128次调用内不会产生重叠的序列
+	 *
+	 * @return
+	 */
+	public Xoshiro256StarStar split() {
+		Xoshiro256StarStar child = new Xoshiro256StarStar(this);
+		jump();
+		return child;
+	}
+
+	/**
+	 * SplitMix64的混合函数
+	 *
+	 * @param z
+	 *            输入
+	 * @return
+	 */
+	static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}